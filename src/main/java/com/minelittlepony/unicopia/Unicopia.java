@@ -1,8 +1,13 @@
 package com.minelittlepony.unicopia;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.networking.v1.EntityTrackingEvents;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 
@@ -13,6 +18,7 @@ import org.apache.logging.log4j.Logger;
 
 import com.minelittlepony.unicopia.ability.Abilities;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
+import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.TraitLoader;
 import com.minelittlepony.unicopia.advancement.UCriteria;
@@ -23,7 +29,9 @@ import com.minelittlepony.unicopia.compat.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.container.SpellbookChapterLoader;
 import com.minelittlepony.unicopia.container.UScreenHandlers;
 import com.minelittlepony.unicopia.diet.DietsLoader;
+import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.minelittlepony.unicopia.diet.affliction.AfflictionType;
+import com.minelittlepony.unicopia.entity.collision.CollisionShapeRegistry;
 import com.minelittlepony.unicopia.entity.damage.UDamageTypes;
 import com.minelittlepony.unicopia.entity.effect.UPotions;
 import com.minelittlepony.unicopia.entity.mob.UEntities;
@@ -31,13 +39,17 @@ import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.UItems;
 import com.minelittlepony.unicopia.item.enchantment.UEnchantments;
 import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.datasync.EffectSync;
 import com.minelittlepony.unicopia.particle.UParticles;
+import com.minelittlepony.unicopia.server.world.AirColumnCache;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
 import com.minelittlepony.unicopia.server.world.NocturnalSleepManager;
 import com.minelittlepony.unicopia.server.world.UGameRules;
 import com.minelittlepony.unicopia.server.world.UWorldGen;
 import com.minelittlepony.unicopia.server.world.WeatherConditions;
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
 import com.minelittlepony.unicopia.server.world.ZapAppleStageStore;
+import com.minelittlepony.unicopia.util.TraceHelper;
 
 public class Unicopia implements ModInitializer {
     public static final String DEFAULT_NAMESPACE = "unicopia";
@@ -71,10 +83,12 @@ public class Unicopia implements ModInitializer {
         Commands.bootstrap();
         TrinketsDelegate.getInstance(null).bootstrap();
 
+        ServerTickEvents.END_SERVER_TICK.register(server -> TraceHelper.clearCache());
         ServerTickEvents.END_WORLD_TICK.register(w -> {
             ((BlockDestructionManager.Source)w).getDestructionManager().tick();
             ZapAppleStageStore.get(w).tick();
             WeatherConditions.get(w).tick();
+            CollisionShapeRegistry.get(w).tick();
             if (Debug.SPELLBOOK_CHAPTERS) {
                 SpellbookChapterLoader.INSTANCE.sendUpdate(w.getServer());
             }
@@ -82,9 +96,34 @@ public class Unicopia implements ModInitializer {
                 Debug.runTests(w);
             }
         });
+        ServerChunkEvents.CHUNK_LOAD.register((w, chunk) -> {
+            AirColumnCache.of(w).onChunkChanged(chunk.getPos());
+            ZapAppleStageStore.get(w).onChunkLoaded(chunk);
+            WorldOverlay.onChunkLoaded(w, chunk);
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((w, chunk) -> {
+            AirColumnCache.of(w).onChunkChanged(chunk.getPos());
+            ZapAppleStageStore.get(w).onChunkUnloaded(chunk);
+            WorldOverlay.onChunkUnloaded(w, chunk);
+        });
+        ServerWorldEvents.UNLOAD.register((server, w) -> WorldOverlay.onWorldUnloaded(w));
+        EntityTrackingEvents.START_TRACKING.register((entity, player) -> {
+            if (entity instanceof PlayerEntity tracked) {
+                Pony.of(tracked).onStartedTrackingBy(player);
+            }
+            Caster.of(entity).map(Caster::getSpellSlot).ifPresent(slot -> {
+                if (slot instanceof EffectSync sync) {
+                    sync.onStartedTracking();
+                }
+            });
+        });
         NocturnalSleepManager.bootstrap();
 
         registerServerDataReloaders(ResourceManagerHelper.get(ResourceType.SERVER_DATA));
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            StateMapLoader.INSTANCE.onTagsLoaded();
+            PonyDiets.onTagsLoaded();
+        });
 
         UGameEvents.bootstrap();
         UBlocks.bootstrap();
@@ -64,7 +64,7 @@ public class ChangelingDisguiseAbility extends ChangelingFeedAbility {
         }
 
         player.calculateDimensions();
-        iplayer.setDirty();
+        iplayer.setDirty(Pony.SyncSection.MANA);
         return true;
     }
 
@@ -180,7 +180,7 @@ public class EarthPonyKickAbility implements Ability<Pos> {
                     }
                 });
 
-                int cost = dropApples(player, pos);
+                int cost = dropApples(player, treeType, tree);
 
                 if (cost > 0) {
                     iplayer.subtractEnergyCost(cost / 7F);
@@ -201,26 +201,23 @@ public class EarthPonyKickAbility implements Ability<Pos> {
         player.asEntity().getHungerManager().addExhaustion(0.1F);
     }
 
-    private int dropApples(PlayerEntity player, BlockPos pos) {
-        TreeType treeType = TreeType.at(pos, player.getWorld());
-        return treeType.collectBlocks(player.getWorld(), pos).map(tree -> {
-            tree.logs().forEach(player.getWorld(), (world, state, position) -> {
-                affectBlockChange(player, position);
-            });
-
-            int[] dropCount = {0};
-            tree.leaves().forEach(player.getWorld(), (world, state, position) -> {
-                affectBlockChange(player, position);
-                if (!buckBlock(treeType, state, world, position)
-                        .filter(i -> !i.isEmpty())
-                        .map(stack -> createDrop(stack, position, world, dropCount))
-                        .toList().isEmpty()) {
-                    world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, position, Block.getRawIdFromState(state));
-                }
-            });
+    private int dropApples(PlayerEntity player, TreeType treeType, TreeType.Tree tree) {
+        tree.logs().forEach(player.getWorld(), (world, state, position) -> {
+            affectBlockChange(player, position);
+        });
+
+        int[] dropCount = {0};
+        tree.leaves().forEach(player.getWorld(), (world, state, position) -> {
+            affectBlockChange(player, position);
+            if (!buckBlock(treeType, state, world, position)
+                    .filter(i -> !i.isEmpty())
+                    .map(stack -> createDrop(stack, position, world, dropCount))
+                    .toList().isEmpty()) {
+                world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, position, Block.getRawIdFromState(state));
+            }
+        });
 
-            return dropCount[0] / 3;
-        }).orElse(0);
+        return dropCount[0] / 3;
     }
 
     private ItemEntity createDrop(ItemStack stack, BlockPos pos, World world, int[] dropCount) {
@@ -70,7 +70,7 @@ public class ToggleFlightAbility implements Ability<Hit> {
         } else {
             player.getPhysics().cancelFlight(true);
         }
-        player.setDirty();
+        player.setDirty(Pony.SyncSection.GRAVITY);
         player.setAnimation(Animation.SPREAD_WINGS, Animation.Recipient.ANYONE);
         return true;
     }
@@ -0,0 +1,84 @@
+package com.minelittlepony.unicopia.ability.data.tree;
+
+import java.util.Optional;
+
+import com.minelittlepony.unicopia.util.PosHelper;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Remembers the shapes of recently scanned trees, keyed by the position of their base,
+ * so that repeated queries against the same tree (e.g. every stage of a single kick) only walk it once.
+ * <p>
+ * A tree is forgotten after a short while, or as soon as any block in or next to it changes.
+ */
+public class TreeCache {
+    private static final int MAX_AGE = 20;
+    private static final int MAX_TREES = 16;
+
+    private final World world;
+    private final Long2ObjectMap<Entry> trees = new Long2ObjectOpenHashMap<>();
+
+    public static TreeCache of(World world) {
+        return ((Source)world).getTreeCache();
+    }
+
+    public TreeCache(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Gets the logs and leaves of the tree of the given type containing a position.
+     */
+    public Optional<TreeType.Tree> getTree(TreeType type, BlockPos pos) {
+        TreeTraverser traverser = new TreeTraverser(type);
+        return traverser.findBase(world, pos).map(base -> {
+            long time = world.getTime();
+            Entry entry = trees.get(base.asLong());
+            if (entry != null && time - entry.created <= MAX_AGE && entry.type.equals(type)) {
+                return entry.tree;
+            }
+
+            if (trees.size() > MAX_TREES) {
+                trees.values().removeIf(e -> time - e.created > MAX_AGE);
+            }
+
+            TreeType.Tree tree = new TreeType.Tree(traverser.collectLogs(world, base), traverser.collectLeaves(world, base));
+            trees.put(base.asLong(), new Entry(type, tree, time, getBounds(base, tree)));
+            return tree;
+        });
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        if (!trees.isEmpty()) {
+            trees.values().removeIf(entry -> entry.bounds.contains(pos));
+        }
+    }
+
+    private static BlockBox getBounds(BlockPos base, TreeType.Tree tree) {
+        int[] bounds = { base.getX(), base.getY(), base.getZ(), base.getX(), base.getY(), base.getZ() };
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        PosHelper.PositionRecord[] parts = { tree.logs(), tree.leaves() };
+        for (PosHelper.PositionRecord part : parts) {
+            part.forEach(mutable, p -> {
+                bounds[0] = Math.min(bounds[0], p.getX());
+                bounds[1] = Math.min(bounds[1], p.getY());
+                bounds[2] = Math.min(bounds[2], p.getZ());
+                bounds[3] = Math.max(bounds[3], p.getX());
+                bounds[4] = Math.max(bounds[4], p.getY());
+                bounds[5] = Math.max(bounds[5], p.getZ());
+            });
+        }
+        return new BlockBox(bounds[0] - 1, bounds[1] - 1, bounds[2] - 1, bounds[3] + 1, bounds[4] + 1, bounds[5] + 1);
+    }
+
+    private record Entry(TreeType type, TreeType.Tree tree, long created, BlockBox bounds) {}
+
+    public interface Source {
+        TreeCache getTreeCache();
+    }
+}
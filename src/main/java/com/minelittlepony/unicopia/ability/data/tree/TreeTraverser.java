@@ -4,6 +4,8 @@ import java.util.Optional;
 
 import com.minelittlepony.unicopia.util.PosHelper;
 
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -14,19 +16,23 @@ public class TreeTraverser {
             Direction.UP, Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST
     };
 
+    private static final int MAX_DEPTH = 50;
+    /**
+     * The most blocks a single traversal will inspect before giving up on the rest of the tree.
+     */
+    private static final int MAX_BLOCKS = 4096;
+
     private final TreeType type;
 
     private PosHelper.PositionRecord logs = new PosHelper.PositionRecord();
     private PosHelper.PositionRecord leaves = new PosHelper.PositionRecord();
 
-    private final int maxRecurse = 50;
-
     public TreeTraverser(TreeType type) {
         this.type = type;
     }
 
     public PosHelper.PositionRecord collectLogs(World w, BlockPos pos) {
-        traverse(w, pos.mutableCopy());
+        traverse(w, pos);
         return logs;
     }
 
@@ -35,34 +41,47 @@ public class TreeTraverser {
         return leaves;
     }
 
-    public void traverse(World w, BlockPos pos) {
-        traverse(w, pos.mutableCopy());
-    }
-
-    private void traverse(World w, BlockPos.Mutable pos) {
+    public void traverse(World w, BlockPos start) {
         logs = new PosHelper.PositionRecord();
         leaves = new PosHelper.PositionRecord();
-        innerTraverse(w, pos, 0);
-    }
 
-    private void innerTraverse(World w, BlockPos.Mutable pos, int recurseLevel) {
-        if (recurseLevel >= maxRecurse || logs.hasVisited(pos) || leaves.hasVisited(pos)) {
-            return;
-        }
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        IntArrayFIFOQueue depths = new IntArrayFIFOQueue();
+        queue.enqueue(start.asLong());
+        depths.enqueue(0);
 
-        BlockState state = w.getBlockState(pos);
-        boolean yay = false;
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        BlockPos.Mutable neighbour = new BlockPos.Mutable();
+        int budget = MAX_BLOCKS;
 
-        if (type.isLeaves(state)) {
-            leaves.visit(pos);
-            yay = true;
-        } else if (type.isLog(state)) {
-            logs.visit(pos);
-            yay = true;
-        }
+        while (!queue.isEmpty() && budget > 0) {
+            pos.set(queue.dequeueLong());
+            int depth = depths.dequeueInt();
+
+            if (logs.hasVisited(pos) || leaves.hasVisited(pos)) {
+                continue;
+            }
 
-        if (yay) {
-            PosHelper.fastAll(pos, p -> innerTraverse(w, p, recurseLevel + 1), WIDE_DIRS);
+            budget--;
+            BlockState state = w.getBlockState(pos);
+
+            if (type.isLeaves(state)) {
+                leaves.visit(pos);
+            } else if (type.isLog(state)) {
+                logs.visit(pos);
+            } else {
+                continue;
+            }
+
+            if (depth + 1 < MAX_DEPTH) {
+                for (Direction direction : WIDE_DIRS) {
+                    neighbour.set(pos, direction);
+                    if (!logs.hasVisited(neighbour) && !leaves.hasVisited(neighbour)) {
+                        queue.enqueue(neighbour.asLong());
+                        depths.enqueue(depth + 1);
+                    }
+                }
+            }
         }
     }
 
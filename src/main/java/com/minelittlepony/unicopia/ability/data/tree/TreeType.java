@@ -29,32 +29,7 @@ public interface TreeType {
         if (logs == NONE || leaves == NONE || Objects.equals(logs, leaves)) {
             return logs;
         }
-        return new TreeType() {
-            @Override
-            public boolean isLeaves(BlockState state) {
-                return leaves.isLeaves(state);
-            }
-
-            @Override
-            public boolean isLog(BlockState state) {
-                return logs.isLog(state);
-            }
-
-            @Override
-            public ItemStack pickRandomStack(Random random, BlockState state) {
-                return (isLeaves(state) ? leaves : logs).pickRandomStack(random, state);
-            }
-
-            @Override
-            public boolean isWide() {
-                return logs.isWide();
-            }
-
-            @Override
-            public float leavesRatio() {
-                return logs.leavesRatio();
-            }
-        };
+        return new TreeTypes.Composite(logs, leaves);
     }
 
     boolean isLeaves(BlockState state);
@@ -81,12 +56,7 @@ public interface TreeType {
         if (this == NONE) {
             return Optional.empty();
         }
-        TreeTraverser traverser = new TreeTraverser(this);
-        return traverser.findBase(w, pos).map(base -> {
-            PosHelper.PositionRecord logs = traverser.collectLogs(w, base);
-            PosHelper.PositionRecord leaves = traverser.collectLeaves(w, base);
-            return logs.size() <= (leaves.size() * leavesRatio()) ? new Tree(logs, leaves) : null;
-        });
+        return TreeCache.of(w).getTree(this, pos).filter(tree -> tree.logs().size() <= (tree.leaves().size() * leavesRatio()));
     }
 
     record Tree(PosHelper.PositionRecord logs, PosHelper.PositionRecord leaves) { }
@@ -1,14 +1,16 @@
 package com.minelittlepony.unicopia.ability.data.tree;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import com.minelittlepony.unicopia.util.PosHelper;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.LeavesBlock;
 import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
@@ -17,28 +19,52 @@ import net.minecraft.util.math.random.Random;
 import net.minecraft.world.World;
 
 public class TreeTypes {
-    private static Set<TreeType> entries = new HashSet<>();
+    /**
+     * The registered tree type each block state belongs to, rebuilt whenever the tree types are reloaded.
+     */
+    private static Reference2ObjectMap<BlockState, TreeType> states = createTable();
 
     private static final TreeType any1x = createDynamic(false);
     private static final TreeType any2x = createDynamic(true);
 
     public static void load(Map<Identifier, TreeTypeLoader.TreeTypeDef> types) {
-        entries = types.entrySet().stream().map(e -> e.getValue().toTreeType(e.getKey())).collect(Collectors.toSet());
+        Reference2ObjectMap<BlockState, TreeType> states = createTable();
+        types.forEach((id, def) -> {
+            TreeType type = def.toTreeType(id);
+            if (type instanceof TreeTypeImpl impl) {
+                index(states, impl, impl.logs());
+                index(states, impl, impl.leaves());
+            }
+        });
+        TreeTypes.states = states;
+    }
+
+    private static Reference2ObjectMap<BlockState, TreeType> createTable() {
+        Reference2ObjectMap<BlockState, TreeType> states = new Reference2ObjectOpenHashMap<>();
+        states.defaultReturnValue(TreeType.NONE);
+        return states;
+    }
+
+    private static void index(Reference2ObjectMap<BlockState, TreeType> states, TreeType type, Set<Identifier> blocks) {
+        blocks.forEach(id -> Registries.BLOCK.getOrEmpty(id).ifPresent(block -> {
+            block.getStateManager().getStates().forEach(state -> {
+                if (type.matches(state)) {
+                    states.putIfAbsent(state, type);
+                }
+            });
+        }));
     }
 
     static TreeType get(BlockState state, BlockPos pos, World world) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .map(type -> TreeType.of(type, findLeavesType(type, world, pos)))
-                .orElseGet(() -> any1x.matches(state) ? (PosHelper.fastAny(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL) ? any2x : any1x) : TreeType.NONE);
+        TreeType type = get(state);
+        if (type != TreeType.NONE) {
+            return TreeType.of(type, findLeavesType(type, world, pos));
+        }
+        return any1x.matches(state) ? (PosHelper.fastAny(pos, p -> world.getBlockState(p).isOf(state.getBlock()), PosHelper.HORIZONTAL) ? any2x : any1x) : TreeType.NONE;
     }
 
     static TreeType get(BlockState state) {
-        return entries.stream()
-                .filter(type -> type.matches(state))
-                .findFirst()
-                .orElse(TreeType.NONE);
+        return states.get(state);
     }
 
     private static TreeType findLeavesType(TreeType baseType, World w, BlockPos pos) {
@@ -55,12 +81,12 @@ public class TreeTypes {
         return new TreeType() {
             @Override
             public boolean isLeaves(BlockState state) {
-                return (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock || entries.stream().anyMatch(t -> t.isLeaves(state))) && TreeTypeImpl.isNonPersistent(state);
+                return (state.isIn(BlockTags.LEAVES) || state.getBlock() instanceof LeavesBlock || get(state).isLeaves(state)) && TreeTypeImpl.isNonPersistent(state);
             }
 
             @Override
             public boolean isLog(BlockState state) {
-                return state.isIn(BlockTags.LOGS_THAT_BURN) || entries.stream().anyMatch(t -> t.isLog(state));
+                return state.isIn(BlockTags.LOGS_THAT_BURN) || get(state).isLog(state);
             }
 
             @Override
@@ -83,4 +109,31 @@ public class TreeTypes {
             }
         };
     }
+
+    record Composite(TreeType logs, TreeType leaves) implements TreeType {
+        @Override
+        public boolean isLeaves(BlockState state) {
+            return leaves.isLeaves(state);
+        }
+
+        @Override
+        public boolean isLog(BlockState state) {
+            return logs.isLog(state);
+        }
+
+        @Override
+        public ItemStack pickRandomStack(Random random, BlockState state) {
+            return (isLeaves(state) ? leaves : logs).pickRandomStack(random, state);
+        }
+
+        @Override
+        public boolean isWide() {
+            return logs.isWide();
+        }
+
+        @Override
+        public float leavesRatio() {
+            return logs.leavesRatio();
+        }
+    }
 }
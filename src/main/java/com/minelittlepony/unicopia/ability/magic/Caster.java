@@ -21,6 +21,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.GameRules;
 
@@ -101,7 +102,15 @@ public interface Caster<E extends Entity> extends
     }
 
     default boolean canCastAt(Vec3d pos) {
-        return !Ether.get(asWorld()).anyMatch(SpellType.ARCANE_PROTECTION, (spell, caster) -> spell.blocksMagicFor(caster, this, pos));
+        return !Ether.get(asWorld()).anyMatchAt(SpellType.ARCANE_PROTECTION, pos, (spell, caster) -> spell.blocksMagicFor(caster, this, pos));
+    }
+
+    /**
+     * Checks whether magic can be cast at every position within a region.
+     * Area spells can use this once per tick to skip the magical check for each individual block.
+     */
+    default boolean canCastWithin(Box region) {
+        return !Ether.get(asWorld()).anyMatchWithin(SpellType.ARCANE_PROTECTION, region, (spell, caster) -> spell.blocksMagicFor(caster, this, region));
     }
 
     default boolean canUse(Ability<?> ability) {
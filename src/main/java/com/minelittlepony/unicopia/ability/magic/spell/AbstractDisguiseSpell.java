@@ -6,6 +6,7 @@ import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.*;
 import com.minelittlepony.unicopia.entity.behaviour.Disguise;
+import com.minelittlepony.unicopia.entity.collision.CollisionShapeRegistry;
 import com.minelittlepony.unicopia.entity.behaviour.EntityAppearance;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.projectile.ProjectileImpactListener;
@@ -33,6 +34,7 @@ public abstract class AbstractDisguiseSpell extends AbstractSpell implements Dis
         if (caster instanceof Pony) {
             ((Pony) caster).setInvisible(false);
         }
+        CollisionShapeRegistry.get(caster.asWorld()).remove(disguise);
         disguise.remove();
     }
 
@@ -48,7 +50,11 @@ public abstract class AbstractDisguiseSpell extends AbstractSpell implements Dis
 
     @Override
     public boolean tick(Caster<?> source, Situation situation) {
-        return situation == Situation.BODY && update(source, true);
+        if (situation == Situation.BODY && update(source, true)) {
+            CollisionShapeRegistry.get(source.asWorld()).update(source.asEntity(), disguise);
+            return true;
+        }
+        return false;
     }
 
     @Override
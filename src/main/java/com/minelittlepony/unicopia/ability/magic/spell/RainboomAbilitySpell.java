@@ -20,6 +20,7 @@ import com.minelittlepony.unicopia.util.shape.Sphere;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
 /**
@@ -65,10 +66,12 @@ public class RainboomAbilitySpell extends AbstractSpell {
                 .forEach(e -> {
             e.damage(source.damageOf(UDamageTypes.RAINBOOM, source), 6);
         });
-        EFFECT_RANGE.translate(source.getOrigin()).getBlockPositions().forEach(pos -> {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        EFFECT_RANGE.forEachBlock(source.getOrigin(), l -> {
+            pos.set(l);
             BlockState state = source.asWorld().getBlockState(pos);
             if (state.isIn(UTags.FRAGILE) && source.canModifyAt(pos, ModificationType.PHYSICAL)) {
-                source.asWorld().breakBlock(pos, true);
+                source.asWorld().breakBlock(pos.toImmutable(), true);
             }
         });
 
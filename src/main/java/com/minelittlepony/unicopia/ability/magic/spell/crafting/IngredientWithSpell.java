@@ -2,9 +2,11 @@ package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Suppliers;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
@@ -12,6 +14,7 @@ import com.minelittlepony.unicopia.item.EnchantableItem;
 import com.minelittlepony.unicopia.util.CodecUtils;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.recipe.Ingredient;
@@ -35,6 +38,7 @@ public class IngredientWithSpell implements Predicate<ItemStack> {
     private final Optional<SpellType<?>> spell;
 
     private final Supplier<ItemStack[]> stacks;
+    private final Supplier<Set<Item>> items;
 
     private IngredientWithSpell(Optional<Ingredient> stack, Optional<SpellType<?>> spell) {
         this.stack = stack;
@@ -46,6 +50,7 @@ public class IngredientWithSpell implements Predicate<ItemStack> {
                     .map(s -> spell.map(p -> EnchantableItem.enchant(s, p)).orElse(s))
                     .toArray(ItemStack[]::new);
         });
+        items = Suppliers.memoize(() -> Arrays.stream(stacks.get()).map(ItemStack::getItem).collect(Collectors.toUnmodifiableSet()));
     }
 
     @Override
@@ -59,6 +64,13 @@ public class IngredientWithSpell implements Predicate<ItemStack> {
         return stacks.get();
     }
 
+    /**
+     * Gets the items this ingredient can match, or an empty set if it does not list any particular items.
+     */
+    public Set<Item> getMatchingItems() {
+        return items.get();
+    }
+
     public boolean isEmpty() {
         return stack.filter(INGREDIENT_IS_PRESENT).isEmpty() && spell.isEmpty();
     }
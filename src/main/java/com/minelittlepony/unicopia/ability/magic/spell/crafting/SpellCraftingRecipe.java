@@ -1,9 +1,7 @@
 package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
@@ -11,7 +9,6 @@ import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
 import com.minelittlepony.unicopia.item.EnchantableItem;
 import com.minelittlepony.unicopia.item.URecipes;
 import com.minelittlepony.unicopia.util.CodecUtils;
-import com.minelittlepony.unicopia.util.InventoryUtil;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
@@ -71,6 +68,21 @@ public class SpellCraftingRecipe implements SpellbookRecipe {
         return requiredItems.isEmpty() ? 0 : -1;
     }
 
+    @Override
+    public Optional<IngredientWithSpell> getMaterial() {
+        return Optional.of(material);
+    }
+
+    @Override
+    public List<IngredientWithSpell> getRequiredItems() {
+        return requiredItems;
+    }
+
+    @Override
+    public Optional<SpellTraits> getMinimumTraits() {
+        return requiredTraits.min();
+    }
+
     @Override
     public boolean matches(SpellbookInventory inventory, World world) {
 
@@ -82,25 +94,33 @@ public class SpellCraftingRecipe implements SpellbookRecipe {
             return requiredTraits.test(inventory.getTraits());
         }
 
-        var outstandingRequirements = new ArrayList<>(requiredItems);
-        var ingredients = InventoryUtil.slots(inventory)
-                .filter(slot -> !inventory.getStack(slot).isEmpty())
-                .map(slot -> Pair.of(slot, inventory.getStack(slot)))
-                .collect(Collectors.toList());
-
-        outstandingRequirements.removeIf(requirement -> {
-            var found = ingredients.stream().filter(pair -> requirement.test(pair.getSecond())).findAny();
-            found.ifPresent(ingredients::remove);
-            return found.isPresent();
-        });
+        // each requirement claims the first unclaimed stack it matches
+        boolean[] claimed = new boolean[inventory.size()];
+        for (IngredientWithSpell requirement : requiredItems) {
+            if (!claim(inventory, requirement, claimed)) {
+                return false;
+            }
+        }
 
-        if (!outstandingRequirements.isEmpty()) {
-            return false;
+        SpellTraits.Builder traits = new SpellTraits.Builder();
+        for (int slot = 0; slot < claimed.length; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (!claimed[slot] && !stack.isEmpty()) {
+                traits.add(SpellTraits.of(stack).multiply(slot));
+            }
         }
+        return requiredTraits.test(traits.build());
+    }
 
-        return requiredTraits.test(SpellTraits.union(
-            ingredients.stream().map(pair -> SpellTraits.of(pair.getSecond()).multiply(pair.getFirst())).toArray(SpellTraits[]::new)
-        ));
+    private static boolean claim(SpellbookInventory inventory, IngredientWithSpell requirement, boolean[] claimed) {
+        for (int slot = 0; slot < claimed.length; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (!claimed[slot] && !stack.isEmpty() && requirement.test(stack)) {
+                claimed[slot] = true;
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
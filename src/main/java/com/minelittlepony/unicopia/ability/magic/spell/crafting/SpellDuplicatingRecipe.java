@@ -1,5 +1,7 @@
 package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
+import java.util.Optional;
+
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
 import com.minelittlepony.unicopia.item.*;
@@ -23,6 +25,11 @@ public class SpellDuplicatingRecipe implements SpellbookRecipe {
         this.material = material;
     }
 
+    @Override
+    public Optional<IngredientWithSpell> getMaterial() {
+        return Optional.of(material);
+    }
+
     @Override
     public void buildCraftingTree(CraftingTreeBuilder builder) {
         ItemStack[] spells = SpellType.REGISTRY.stream()
@@ -1,5 +1,7 @@
 package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
+import java.util.Optional;
+
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
 import com.minelittlepony.unicopia.item.*;
@@ -26,6 +28,11 @@ public class SpellEnhancingRecipe implements SpellbookRecipe {
         return material;
     }
 
+    @Override
+    public Optional<IngredientWithSpell> getMaterial() {
+        return Optional.of(material);
+    }
+
     @Override
     public void buildCraftingTree(CraftingTreeBuilder builder) {
         builder.input(material.getMatchingStacks());
@@ -1,7 +1,9 @@
 package com.minelittlepony.unicopia.ability.magic.spell.crafting;
 
 import java.util.List;
+import java.util.Optional;
 
+import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
 import com.minelittlepony.unicopia.item.UItems;
@@ -31,6 +33,28 @@ public interface SpellbookRecipe extends Recipe<SpellbookInventory> {
 
     int getPriority();
 
+    /**
+     * Gets the ingredient the item in the gem slot must match for this recipe to apply, if any.
+     * Used by the {@link SpellbookRecipeIndex} to only consider recipes for the item being modified.
+     */
+    default Optional<IngredientWithSpell> getMaterial() {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the ingredients that must all be present for this recipe to apply.
+     */
+    default List<IngredientWithSpell> getRequiredItems() {
+        return List.of();
+    }
+
+    /**
+     * Gets the smallest amount of each trait the inputs must have for this recipe to apply.
+     */
+    default Optional<SpellTraits> getMinimumTraits() {
+        return Optional.empty();
+    }
+
     interface CraftingTreeBuilder {
         void input(ItemStack...stacks);
 
@@ -0,0 +1,127 @@
+package com.minelittlepony.unicopia.ability.magic.spell.crafting;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
+import com.minelittlepony.unicopia.container.inventory.SpellbookInventory;
+import com.minelittlepony.unicopia.item.URecipes;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.world.World;
+
+/**
+ * Spellbook recipes grouped by the item they modify.
+ * <p>
+ * Candidates are checked against the items and trait totals present in the spellbook
+ * before their full matching logic is run, and are visited in priority order so the first match wins.
+ * A new index is built whenever the server's recipes are reloaded.
+ */
+public final class SpellbookRecipeIndex {
+    private static WeakReference<RecipeManager> lastManager = new WeakReference<>(null);
+    private static SpellbookRecipeIndex lastIndex = new SpellbookRecipeIndex(List.of());
+
+    public static synchronized SpellbookRecipeIndex of(RecipeManager manager) {
+        if (lastManager.get() != manager) {
+            lastManager = new WeakReference<>(manager);
+            lastIndex = new SpellbookRecipeIndex(manager.listAllOfType(URecipes.SPELLBOOK));
+        }
+        return lastIndex;
+    }
+
+    private final Reference2ObjectMap<Item, List<Entry>> byMaterial = new Reference2ObjectOpenHashMap<>();
+    private final List<Entry> anyMaterial = new ArrayList<>();
+
+    SpellbookRecipeIndex(List<RecipeEntry<SpellbookRecipe>> recipes) {
+        List<Entry> entries = new ArrayList<>(recipes.size());
+        for (RecipeEntry<SpellbookRecipe> recipe : recipes) {
+            entries.add(new Entry(recipe));
+        }
+        // stable, so recipes of equal priority keep the order the recipe manager gave them
+        entries.sort(Comparator.comparingInt(entry -> entry.recipe().value().getPriority()));
+
+        for (Entry entry : entries) {
+            Set<Item> materials = entry.recipe().value().getMaterial().map(IngredientWithSpell::getMatchingItems).orElse(Set.of());
+            if (materials.isEmpty()) {
+                anyMaterial.add(entry);
+                byMaterial.values().forEach(list -> list.add(entry));
+            } else {
+                for (Item material : materials) {
+                    byMaterial.computeIfAbsent(material, m -> new ArrayList<>(anyMaterial)).add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the highest priority recipe matching the spellbook's current contents.
+     */
+    public Optional<RecipeEntry<SpellbookRecipe>> findFirstMatch(SpellbookInventory inventory, World world) {
+        List<Entry> candidates = byMaterial.getOrDefault(inventory.getItemToModify().getItem(), anyMaterial);
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Contents contents = Contents.of(inventory);
+        for (Entry entry : candidates) {
+            if (entry.canMatch(contents) && entry.recipe().value().matches(inventory, world)) {
+                return Optional.of(entry.recipe());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A summary of the spellbook's inputs, gathered once per lookup.
+     *
+     * @param items      Every item present in the spellbook's slots
+     * @param stacks     The number of non-empty slots
+     * @param traitLimit The most of each trait any recipe could be given by these inputs
+     */
+    private record Contents(ReferenceSet<Item> items, int stacks, SpellTraits traitLimit) {
+        static Contents of(SpellbookInventory inventory) {
+            ReferenceSet<Item> items = new ReferenceOpenHashSet<>();
+            SpellTraits.Builder traits = new SpellTraits.Builder();
+            int stacks = 0;
+            for (int slot = 0; slot < inventory.size(); slot++) {
+                ItemStack stack = inventory.getStack(slot);
+                if (!stack.isEmpty()) {
+                    stacks++;
+                    items.add(stack.getItem());
+                    // recipes weigh each slot either by its index or by its factor, so the larger of the two bounds both
+                    float weight = Math.max(slot, inventory.getFactor(slot));
+                    traits.add(SpellTraits.of(stack).map(value -> Math.max(0, value) * weight));
+                }
+            }
+            return new Contents(items, stacks, traits.build());
+        }
+    }
+
+    private record Entry(RecipeEntry<SpellbookRecipe> recipe, List<Set<Item>> requiredItems, Optional<SpellTraits> minimumTraits) {
+        Entry(RecipeEntry<SpellbookRecipe> recipe) {
+            this(recipe,
+                recipe.value().getRequiredItems().stream().map(IngredientWithSpell::getMatchingItems).toList(),
+                recipe.value().getMinimumTraits()
+            );
+        }
+
+        boolean canMatch(Contents contents) {
+            if (requiredItems.size() > contents.stacks()) {
+                return false;
+            }
+            for (Set<Item> items : requiredItems) {
+                if (!items.isEmpty() && items.stream().noneMatch(contents.items()::contains)) {
+                    return false;
+                }
+            }
+            return minimumTraits.isEmpty() || contents.traitLimit().includes(minimumTraits.get());
+        }
+    }
+}
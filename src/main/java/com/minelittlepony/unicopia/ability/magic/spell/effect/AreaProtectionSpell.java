@@ -14,6 +14,8 @@ import com.minelittlepony.unicopia.util.shape.Sphere;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 
 public class AreaProtectionSpell extends AbstractAreaEffectSpell {
@@ -44,7 +46,7 @@ public class AreaProtectionSpell extends AbstractAreaEffectSpell {
                 }
             });
         } else {
-            Ether.get(source.asWorld()).getOrCreate(this, source);
+            Ether.get(source.asWorld()).getOrCreate(this, source).setArea(source.getOriginVector(), radius);
         }
 
         source.findAllSpellsInRange(radius, e -> isValidTarget(source, e)).filter(caster -> !caster.hasCommonOwner(source)).forEach(caster -> {
@@ -77,6 +79,18 @@ public class AreaProtectionSpell extends AbstractAreaEffectSpell {
                 && source.getOriginVector().distanceTo(position) <= getDrawDropOffRange(source);
     }
 
+    public boolean blocksMagicFor(Caster<?> source, Caster<?> other, Box region) {
+        if (FriendshipBraceletItem.isComrade(other, other.asEntity())) {
+            return false;
+        }
+        Vec3d origin = source.getOriginVector();
+        double range = getDrawDropOffRange(source);
+        double x = MathHelper.clamp(origin.x, region.minX, region.maxX) - origin.x;
+        double y = MathHelper.clamp(origin.y, region.minY, region.maxY) - origin.y;
+        double z = MathHelper.clamp(origin.z, region.minZ, region.maxZ) - origin.z;
+        return x * x + y * y + z * z <= range * range;
+    }
+
     protected boolean isValidTarget(Caster<?> source, Entity entity) {
         return entity.getType() == UEntities.MAGIC_BEAM;
     }
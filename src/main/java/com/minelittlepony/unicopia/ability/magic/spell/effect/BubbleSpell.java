@@ -24,7 +24,6 @@ import net.minecraft.nbt.NbtCompound;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.math.MathHelper;
-import net.minecraft.util.math.Vec3d;
 
 public class BubbleSpell extends AbstractSpell implements TimedSpell,
         ProjectileDelegate.EntityHitListener {
@@ -105,9 +104,7 @@ public class BubbleSpell extends AbstractSpell implements TimedSpell,
 
         boolean done = timer.getTicksRemaining() <= 0;
 
-        source.spawnParticles(source.getOriginVector().add(0, 1, 0), new Sphere(true, radius * (done ? 0.25F : 0.5F)), done ? 13 : 1, pos -> {
-            source.addParticle(done ? ParticleTypes.BUBBLE_POP : UParticles.BUBBLE, pos, Vec3d.ZERO);
-        });
+        source.spawnParticles(source.getOriginVector().add(0, 1, 0), new Sphere(true, radius * (done ? 0.25F : 0.5F)), done ? 13 : 1, done ? ParticleTypes.BUBBLE_POP : UParticles.BUBBLE);
 
         if (done) {
             return false;
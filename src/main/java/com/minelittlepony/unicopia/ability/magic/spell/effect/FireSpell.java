@@ -11,6 +11,8 @@ import com.minelittlepony.unicopia.block.state.StateMaps;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.projectile.MagicProjectileEntity;
 import com.minelittlepony.unicopia.projectile.ProjectileDelegate;
+import com.minelittlepony.unicopia.server.world.ModificationType;
+import com.minelittlepony.unicopia.server.world.RegionModification;
 import com.minelittlepony.unicopia.util.shape.Sphere;
 
 import net.minecraft.block.Block;
@@ -67,10 +69,8 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
             generateParticles(source);
         }
 
-        return new Sphere(false, Math.max(0, 4 + getTraits().get(Trait.POWER))).translate(source.getOrigin()).getBlockPositions().reduce(false,
-                (r, i) -> source.canModifyAt(i) && applyBlocks(source.asWorld(), i),
-                (a, b) -> a || b)
-                || applyEntities(source, source.getOriginVector());
+        RegionModification.apply(source, new Sphere(false, Math.max(0, 4 + getTraits().get(Trait.POWER))), ModificationType.EITHER, this::applyBlocks);
+        return applyEntities(source, source.getOriginVector());
     }
 
     protected void generateParticles(Caster<?> source) {
@@ -80,14 +80,18 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
     }
 
     protected boolean applyBlocks(World world, BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
+        return applyBlocks(RegionModification.immediate(world), pos, world.getBlockState(pos));
+    }
+
+    protected boolean applyBlocks(RegionModification region, BlockPos pos, BlockState state) {
+        World world = region.getWorld();
 
         if (!state.isAir()) {
             if (state.isOf(Blocks.NETHERRACK)) {
                 if (world.isAir(pos.up())) {
 
                     if (world.random.nextInt(300) == 0) {
-                        world.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
+                        region.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
                     }
 
                     return true;
@@ -100,19 +104,19 @@ public class FireSpell extends AbstractAreaEffectSpell implements ProjectileDele
                 return true;
             } else if (state.isIn(BlockTags.SAND) && world.random.nextInt(10) == 0) {
                 if (isSurroundedBySand(world, pos)) {
-                    world.setBlockState(pos, Blocks.GLASS.getDefaultState());
+                    region.setBlockState(pos, Blocks.GLASS.getDefaultState());
 
                     playEffect(world, pos);
                     return true;
                 }
             } else if (state.isIn(BlockTags.LEAVES)) {
                 if (world.isAir(pos.up())) {
-                    world.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
+                    region.setBlockState(pos.up(), Blocks.FIRE.getDefaultState());
 
                     playEffect(world, pos);
                     return true;
                 }
-            } else if (StateMaps.FIRE_AFFECTED.convert(world, pos)) {
+            } else if (region.convert(StateMaps.FIRE_AFFECTED, pos, state)) {
                 playEffect(world, pos);
                 return true;
             }
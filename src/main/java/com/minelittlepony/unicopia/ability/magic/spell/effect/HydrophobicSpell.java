@@ -92,6 +92,7 @@ public class HydrophobicSpell extends AbstractSpell {
             double range = getRange(source);
             var entry = Ether.get(source.asWorld()).getOrCreate(this, source);
             entry.radius =  (float)range;
+            entry.setArea(source.getOriginVector(), range + 1);
 
             source.spawnParticles(new Sphere(true, range), 10, pos -> {
                 BlockPos bp = BlockPos.ofFloored(pos);
@@ -176,7 +177,7 @@ public class HydrophobicSpell extends AbstractSpell {
 
     public static boolean blocksFluidFlow(BlockView world, BlockPos pos, FluidState state) {
         if (world instanceof ServerWorld sw) {
-            return Ether.get(sw).anyMatch(SpellType.HYDROPHOBIC, entry -> {
+            return Ether.get(sw).anyMatchAt(SpellType.HYDROPHOBIC, Vec3d.ofCenter(pos), entry -> {
                 var spell = entry.getSpell();
                 var target = entry.entity.getTarget().orElse(null);
                 return spell != null && target != null && spell.blocksFlow(entry, target.pos(), pos, state);
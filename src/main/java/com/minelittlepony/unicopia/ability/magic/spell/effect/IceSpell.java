@@ -10,6 +10,8 @@ import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.block.state.StateMaps;
 import com.minelittlepony.unicopia.block.state.StatePredicate;
 import com.minelittlepony.unicopia.particle.ParticleUtils;
+import com.minelittlepony.unicopia.server.world.ModificationType;
+import com.minelittlepony.unicopia.server.world.RegionModification;
 import com.minelittlepony.unicopia.util.PosHelper;
 import com.minelittlepony.unicopia.util.VecHelper;
 import com.minelittlepony.unicopia.util.shape.Shape;
@@ -44,15 +46,15 @@ public class IceSpell extends AbstractSpell {
     public boolean tick(Caster<?> source, Situation situation) {
         boolean submerged = source.asEntity().isSubmergedInWater() || source.asEntity().isSubmergedIn(FluidTags.LAVA);
 
-        long blocksAffected = OUTER_RANGE.translate(source.getOrigin()).getBlockPositions().filter(i -> {
-            if (source.canModifyAt(i) && applyBlockSingle(source.asEntity(), source.asWorld(), i, situation)) {
+        long blocksAffected = RegionModification.apply(source, OUTER_RANGE, ModificationType.EITHER, (region, i, state) -> {
+            if (applyBlockSingle(source.asEntity(), region, i, state, situation)) {
 
                 if (submerged & source.getOrigin().isWithinDistance(i, RADIUS - 1)) {
-                    BlockState state = source.asWorld().getBlockState(i);
-                    if (state.isIn(BlockTags.ICE) || state.isOf(Blocks.OBSIDIAN)) {
+                    BlockState updated = source.asWorld().getBlockState(i);
+                    if (updated.isIn(BlockTags.ICE) || updated.isOf(Blocks.OBSIDIAN)) {
                         source.asWorld().setBlockState(i, Blocks.AIR.getDefaultState(), Block.NOTIFY_NEIGHBORS);
-                    } else if (!state.getFluidState().isEmpty()) {
-                        source.asWorld().setBlockState(i, state.with(Properties.WATERLOGGED, false), Block.NOTIFY_NEIGHBORS);
+                    } else if (!updated.getFluidState().isEmpty()) {
+                        source.asWorld().setBlockState(i, updated.with(Properties.WATERLOGGED, false), Block.NOTIFY_NEIGHBORS);
                     }
                 }
 
@@ -65,7 +67,7 @@ public class IceSpell extends AbstractSpell {
             }
 
             return false;
-        }).count();
+        });
 
         if (!source.subtractEnergyCost(Math.min(10, blocksAffected / 30))) {
             setDead();
@@ -95,25 +97,25 @@ public class IceSpell extends AbstractSpell {
         }
     }
 
-    private boolean applyBlockSingle(Entity owner, World world, BlockPos pos, Situation situation) {
-        BlockState state = world.getBlockState(pos);
+    private boolean applyBlockSingle(Entity owner, RegionModification region, BlockPos pos, BlockState state, Situation situation) {
+        World world = region.getWorld();
 
-        if ((situation == Situation.PROJECTILE && StateMaps.SNOW_PILED.convert(world, pos))
-            || StateMaps.ICE_AFFECTED.convert(world, pos)) {
+        if ((situation == Situation.PROJECTILE && region.convert(StateMaps.SNOW_PILED, pos, state))
+            || region.convert(StateMaps.ICE_AFFECTED, pos, state)) {
             return true;
         }
 
         if (world.isTopSolid(pos, owner)
                 || (state.isOf(Blocks.SNOW) && state.get(SnowBlock.LAYERS) == SnowBlock.MAX_LAYERS)
                 || state.isIn(BlockTags.LEAVES)) {
-            addSnowLayer(world, pos.up());
+            addSnowLayer(region, pos.up());
             return true;
         }
 
         if (state.isIn(BlockTags.ICE)
                 && world.random.nextInt(10) == 0
                 && isSurroundedByIce(world, pos)) {
-            world.setBlockState(pos, Blocks.PACKED_ICE.getDefaultState());
+            region.setBlockState(pos, Blocks.PACKED_ICE.getDefaultState());
             return true;
         }
 
@@ -126,11 +128,11 @@ public class IceSpell extends AbstractSpell {
         );
     }
 
-    private static void addSnowLayer(World world, BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
+    private static void addSnowLayer(RegionModification region, BlockPos pos) {
+        BlockState state = region.getWorld().getBlockState(pos);
 
         if (state.isAir() || StatePredicate.isPlant(state)) {
-            world.setBlockState(pos, Blocks.SNOW.getDefaultState(), 3);
+            region.setBlockState(pos, Blocks.SNOW.getDefaultState());
         }
     }
 }
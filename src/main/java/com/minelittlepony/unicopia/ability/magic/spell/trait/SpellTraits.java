@@ -3,23 +3,22 @@ package com.minelittlepony.unicopia.ability.magic.spell.trait;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.client.gui.ItemTraitsTooltipRenderer;
-import com.minelittlepony.unicopia.util.InventoryUtil;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
@@ -41,48 +40,60 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.registry.Registries;
 
 public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
-    public static final SpellTraits EMPTY = new SpellTraits(Map.of());
-    private static final SpellTraits SPAWN_EGG_TRAITS = new SpellTraits(Map.of(Trait.LIFE, 20F));
+    private static final Trait[] TRAITS = Trait.values();
+
+    public static final SpellTraits EMPTY = new SpellTraits(new float[TRAITS.length], 0);
+    private static final SpellTraits SPAWN_EGG_TRAITS = new Builder().with(Trait.LIFE, 20F).build();
 
-    private static Map<Identifier, SpellTraits> REGISTRY = new HashMap<>();
-    static final Map<Trait, List<Item>> ITEMS = new HashMap<>();
+    private static Map<Identifier, SpellTraits> REGISTRY = Map.of();
+    static Map<Trait, List<Item>> ITEMS = new EnumMap<>(Trait.class);
 
     public static final Codec<SpellTraits> CODEC = Codec.unboundedMap(Trait.CODEC, Codec.FLOAT).flatXmap(
             map -> DataResult.success(fromEntries(map.entrySet().stream()).orElse(EMPTY)),
-            traits -> DataResult.success(traits.traits)
+            traits -> DataResult.success(traits.asMap())
     );
 
     public static void load(Map<Identifier, SpellTraits> newRegistry) {
-        REGISTRY = newRegistry;
-        ITEMS.clear();
-        REGISTRY.forEach((itemId, traits) -> {
+        Map<Trait, List<Item>> items = new EnumMap<>(Trait.class);
+        newRegistry.forEach((itemId, traits) -> {
             Registries.ITEM.getOrEmpty(itemId).ifPresent(item -> {
-                traits.forEach(entry -> {
-                    List<Item> items = ITEMS.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
-                    if (!items.contains(item)) {
-                        items.add(item);
-                    }
-                 });
+                traits.forEach(entry -> items.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(item));
             });
         });
+        REGISTRY = Collections.unmodifiableMap(newRegistry);
+        ITEMS = items;
     }
 
+    /**
+     * Gets the traits of every item. The same unmodifiable map is returned until traits are next loaded.
+     */
     public static Map<Identifier, SpellTraits> all() {
-        return new HashMap<>(REGISTRY);
+        return REGISTRY;
     }
 
-    private final Map<Trait, Float> traits;
+    /**
+     * Trait values indexed by ordinal. Absent traits are always exactly zero.
+     */
+    private final float[] values;
+    /**
+     * Bitmask of the ordinals of the traits with a non-zero value.
+     */
+    private final long mask;
 
-    SpellTraits(Map<Trait, Float> traits) {
-        this.traits = traits;
-    }
+    @Nullable
+    private Map<Trait, Float> map;
 
-    SpellTraits(SpellTraits from) {
-        this(new EnumMap<>(from.traits));
+    private SpellTraits(float[] values, long mask) {
+        this.values = values;
+        this.mask = mask;
     }
 
     public float getCorruption() {
-        return (float)stream().filter(e -> e.getValue() != 0).mapToDouble(e -> e.getKey().getGroup().getCorruption()).sum();
+        float corruption = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            corruption += TRAITS[Long.numberOfTrailingZeros(m)].getGroup().getCorruption();
+        }
+        return corruption;
     }
 
     public SpellTraits multiply(float factor) {
@@ -97,8 +108,17 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
         return union(this, traits);
     }
 
-    public SpellTraits map(Function<Float, Float> function) {
-        return map((k, v) -> function.apply(v));
+    public SpellTraits map(FloatUnaryOperator function) {
+        if (isEmpty()) {
+            return this;
+        }
+
+        Builder builder = new Builder();
+        for (long m = mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            builder.set(i, function.apply(values[i]));
+        }
+        return builder.build();
     }
 
     public SpellTraits map(BiFunction<Trait, Float, Float> function) {
@@ -106,13 +126,16 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
             return this;
         }
 
-        Map<Trait, Float> newMap = new EnumMap<>(traits);
-        newMap.entrySet().forEach(entry -> entry.setValue(function.apply(entry.getKey(), entry.getValue())));
-        return fromEntries(newMap.entrySet().stream()).orElse(EMPTY);
+        Builder builder = new Builder();
+        for (long m = mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            builder.set(i, function.apply(TRAITS[i], values[i]));
+        }
+        return builder.build();
     }
 
     public boolean isEmpty() {
-        return traits.isEmpty();
+        return mask == 0;
     }
 
     public boolean isPresent() {
@@ -120,9 +143,13 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public boolean includes(SpellTraits other) {
-        return other.stream().allMatch(pair -> {
-            return get(pair.getKey()) >= pair.getValue();
-        });
+        for (long m = other.mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            if (values[i] < other.values[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -131,26 +158,45 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public Set<Map.Entry<Trait, Float>> entries() {
-        return traits.entrySet();
+        return asMap().entrySet();
     }
 
     public Stream<Map.Entry<Trait, Float>> stream() {
         return entries().stream();
     }
 
+    /**
+     * The number of traits with a non-zero value.
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
     public float getOrDefault(Trait trait, float def) {
-        float i = traits.getOrDefault(trait, def);
+        float i = values[trait.ordinal()];
         return i == 0 ? def : i;
     }
 
     public float get(Trait trait) {
-        return getOrDefault(trait, 0F);
+        return values[trait.ordinal()];
     }
 
     public float get(Trait trait, float min, float max) {
         return MathHelper.clamp(get(trait), min, max);
     }
 
+    private Map<Trait, Float> asMap() {
+        if (map == null) {
+            Map<Trait, Float> map = new EnumMap<>(Trait.class);
+            for (long m = mask; m != 0; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                map.put(TRAITS[i], values[i]);
+            }
+            this.map = Collections.unmodifiableMap(map);
+        }
+        return map;
+    }
+
     @Environment(EnvType.CLIENT)
     public void appendTooltip(List<Text> tooltip) {
         if (isEmpty()) {
@@ -161,31 +207,36 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
 
     public NbtCompound toNbt() {
         NbtCompound nbt = new NbtCompound();
-        traits.forEach((key, value) -> nbt.putFloat(key.getId().toString(), value));
+        for (long m = mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
+            nbt.putFloat(TRAITS[i].getId().toString(), values[i]);
+        }
         return nbt;
     }
 
+    /**
+     * Writes the mask of present trait ordinals followed by their values in ordinal order.
+     */
     public void write(PacketByteBuf buf) {
-        buf.writeInt(traits.size());
-        traits.forEach((trait, value) -> {
-            buf.writeIdentifier(trait.getId());
-            buf.writeFloat(value);
-        });
+        buf.writeVarLong(mask);
+        for (long m = mask; m != 0; m &= m - 1) {
+            buf.writeFloat(values[Long.numberOfTrailingZeros(m)]);
+        }
     }
 
     @Override
     public String toString() {
-        return "SpellTraits[" + traits.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",")) + "]";
+        return "SpellTraits[" + stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",")) + "]";
     }
 
     @Override
     public int hashCode() {
-        return traits.hashCode();
+        return Arrays.hashCode(values);
     }
 
     @Override
     public boolean equals(Object other) {
-        return this == other || other instanceof SpellTraits && Objects.equals(traits, ((SpellTraits) other).traits);
+        return this == other || other instanceof SpellTraits o && mask == o.mask && Arrays.equals(values, o.values);
     }
 
     public static SpellTraits union(SpellTraits a, SpellTraits b) {
@@ -195,26 +246,31 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
         if (b.isEmpty()) {
             return a;
         }
-        Map<Trait, Float> traits = new HashMap<>();
-        combine(traits, a.traits);
-        combine(traits, b.traits);
-        return traits.isEmpty() ? EMPTY : new SpellTraits(traits);
+        return new Builder().add(a).add(b).build();
     }
 
     public static SpellTraits union(SpellTraits...many) {
-        Map<Trait, Float> traits = new HashMap<>();
+        Builder builder = new Builder();
         for (SpellTraits i : many) {
-            combine(traits, i.traits);
+            builder.add(i);
         }
-        return traits.isEmpty() ? EMPTY : new SpellTraits(traits);
+        return builder.build();
     }
 
     public static SpellTraits of(Inventory inventory) {
-        return of(InventoryUtil.stream(inventory).toList());
+        Builder builder = new Builder();
+        for (int i = 0; i < inventory.size(); i++) {
+            builder.add(of(inventory.getStack(i)));
+        }
+        return builder.build();
     }
 
     public static SpellTraits of(Collection<ItemStack> stacks) {
-        return fromEntries(stacks.stream().flatMap(a -> of(a).entries().stream())).orElse(SpellTraits.EMPTY);
+        Builder builder = new Builder();
+        for (ItemStack stack : stacks) {
+            builder.add(of(stack));
+        }
+        return builder.build();
     }
 
     public static SpellTraits of(ItemStack stack) {
@@ -265,27 +321,20 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public static SpellTraits fromPacket(PacketByteBuf buf) {
-        Map<Trait, Float> entries = new HashMap<>();
-        int count = buf.readInt();
-        if (count <= 0) {
-            return SpellTraits.EMPTY;
+        long mask = buf.readVarLong();
+        if (mask == 0) {
+            return EMPTY;
         }
 
-        for (int i = 0; i < count; i++) {
-            Identifier id = buf.readIdentifier();
+        Builder builder = new Builder();
+        for (long m = mask; m != 0; m &= m - 1) {
+            int i = Long.numberOfTrailingZeros(m);
             float value = buf.readFloat();
-            if (value == 0) {
-                continue;
+            if (i < TRAITS.length) {
+                builder.set(i, value);
             }
-
-            Trait.fromId(id).ifPresent(trait -> {
-                entries.compute(trait, (k, v) -> v == null ? value : (v + value));
-            });
-        }
-        if (entries.isEmpty()) {
-            return SpellTraits.EMPTY;
         }
-        return new SpellTraits(entries);
+        return builder.build();
     }
 
     public static Optional<SpellTraits> fromString(String traits) {
@@ -304,41 +353,70 @@ public final class SpellTraits implements Iterable<Map.Entry<Trait, Float>> {
     }
 
     public static Optional<SpellTraits> fromEntries(Stream<Map.Entry<Trait, Float>> entries) {
-        var result = collect(entries);
-
-        if (result.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(new SpellTraits(result));
-    }
-
-    static void combine(Map<Trait, Float> to, Map<Trait, Float> from) {
-        if (from.isEmpty()) {
-            return;
-        }
-        from.forEach((trait, value) -> {
-            if (value != 0) {
-                to.compute(trait, (k, v) -> v == null ? value : (v + value));
+        Builder builder = new Builder();
+        entries.forEach(entry -> {
+            if (entry != null) {
+                builder.add(entry.getKey(), entry.getValue());
             }
         });
+        return Optional.of(builder.build()).filter(SpellTraits::isPresent);
     }
 
-    static Map<Trait, Float> collect(Stream<Map.Entry<Trait, Float>> entries) {
-        return entries.filter(Objects::nonNull)
-                .filter(e -> e.getValue() != 0)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a + b, () -> new EnumMap<>(Trait.class)));
+    public interface FloatUnaryOperator {
+        float apply(float value);
     }
 
+    /**
+     * Mutable set of trait values.
+     * <p>
+     * Can be used both to build a set of traits and, by calling {@link #clear()} between uses,
+     * as a reusable accumulator that doesn't allocate until {@link #build()} is called.
+     */
     public static final class Builder {
-        private final Map<Trait, Float> traits = new EnumMap<>(Trait.class);
+        private final float[] values = new float[TRAITS.length];
+        private long mask;
 
         public Builder with(Trait trait, float amount) {
-            traits.put(trait, amount);
+            set(trait.ordinal(), amount);
+            return this;
+        }
+
+        public Builder add(Trait trait, float amount) {
+            int i = trait.ordinal();
+            set(i, values[i] + amount);
             return this;
         }
 
+        public Builder add(SpellTraits traits) {
+            for (long m = traits.mask; m != 0; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                set(i, values[i] + traits.values[i]);
+            }
+            return this;
+        }
+
+        public Builder clear() {
+            Arrays.fill(values, 0);
+            mask = 0;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return mask == 0;
+        }
+
+        private void set(int i, float value) {
+            if (value == 0) {
+                values[i] = 0;
+                mask &= ~(1L << i);
+            } else {
+                values[i] = value;
+                mask |= 1L << i;
+            }
+        }
+
         public SpellTraits build() {
-            return fromEntries(traits.entrySet().stream()).orElse(SpellTraits.EMPTY);
+            return mask == 0 ? EMPTY : new SpellTraits(values.clone(), mask);
         }
     }
 }
@@ -3,10 +3,14 @@ package com.minelittlepony.unicopia.ability.magic.spell.trait;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -84,22 +88,29 @@ public class TraitLoader extends SinglePreparationResourceReloader<Multimap<Iden
     protected void apply(Multimap<Identifier, TraitStream> prepared, ResourceManager manager, Profiler profiler) {
         profiler.startTick();
 
-        Set<Map.Entry<TraitStream.Key, SpellTraits>> newRegistry = prepared.values().stream()
+        profiler.push("merge");
+        Map<TraitStream.Key, SpellTraits> newRegistry = prepared.values().stream()
                 .flatMap(TraitStream::entries)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, SpellTraits::union))
-                .entrySet();
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, SpellTraits::union));
 
-        SpellTraits.load(Registries.ITEM.getEntrySet().stream()
+        profiler.swap("resolve");
+        Map<Item, List<SpellTraits>> contributions = new HashMap<>();
+        newRegistry.forEach((key, traits) -> {
+            key.forEachItem(item -> contributions.computeIfAbsent(item, i -> new ArrayList<>()).add(traits));
+        });
+
+        profiler.swap("union");
+        Map<Identifier, SpellTraits> items = contributions.entrySet().parallelStream()
                 .map(entry -> Map.entry(
-                        entry.getKey().getValue(),
-                        newRegistry.stream()
-                            .filter(p -> p.getKey().test(entry.getValue()))
-                            .map(Map.Entry::getValue)
-                            .reduce(SpellTraits::union)
-                            .orElse(SpellTraits.EMPTY)
+                        Registries.ITEM.getId(entry.getKey()),
+                        entry.getValue().stream().reduce(SpellTraits::union).orElse(SpellTraits.EMPTY)
                 ))
                 .filter(entry -> !entry.getValue().isEmpty())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        profiler.swap("index");
+        SpellTraits.load(items);
+        profiler.pop();
 
         profiler.endTick();
     }
@@ -155,6 +166,12 @@ public class TraitLoader extends SinglePreparationResourceReloader<Multimap<Iden
             static Key of(String s) {
                 return s.startsWith("#") ? new Tag(TagKey.of(RegistryKeys.ITEM, Identifier.tryParse(s.substring(1)))) : new Id(Identifier.tryParse(s));
             }
+
+            /**
+             * Visits every registered item this key matches.
+             */
+            void forEachItem(Consumer<Item> consumer);
+
             record Tag(TagKey<Item> tag) implements Key {
 
                 @SuppressWarnings("deprecation")
@@ -162,6 +179,11 @@ public class TraitLoader extends SinglePreparationResourceReloader<Multimap<Iden
                 public boolean test(ItemConvertible item) {
                     return item.asItem().getRegistryEntry().isIn(tag);
                 }
+
+                @Override
+                public void forEachItem(Consumer<Item> consumer) {
+                    Registries.ITEM.iterateEntries(tag).forEach(entry -> consumer.accept(entry.value()));
+                }
             }
 
             record Id(Identifier id) implements Key {
@@ -169,6 +191,13 @@ public class TraitLoader extends SinglePreparationResourceReloader<Multimap<Iden
                 public boolean test(ItemConvertible item) {
                     return Objects.equals(id, Registries.ITEM.getId(item.asItem()));
                 }
+
+                @Override
+                public void forEachItem(Consumer<Item> consumer) {
+                    if (id != null) {
+                        Registries.ITEM.getOrEmpty(id).ifPresent(consumer);
+                    }
+                }
             }
         }
     }
@@ -45,8 +45,14 @@ public interface BlockStateConverter {
      *
      */
     default boolean convert(World world, BlockPos pos) {
-        BlockState state = world.getBlockState(pos);
+        return convert(world, pos, world.getBlockState(pos));
+    }
 
+    /**
+     * Attempts to convert a block state at a position when the current state is already known.
+     * Returns true if the block was changed.
+     */
+    default boolean convert(World world, BlockPos pos, BlockState state) {
         if (!canConvert(state)) {
             return false;
         }
@@ -8,17 +8,26 @@ import org.jetbrains.annotations.Nullable;
 
 import com.google.gson.*;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.world.World;
 
 public class JsonReversableBlockStateConverter implements ReversableBlockStateConverter {
+    private static final int NO_MATCH = -1;
 
     private final List<BlockStateConverter> entries;
 
     @Nullable
     private ReversableBlockStateConverter inverse;
 
+    /**
+     * Index of the first entry matching each block state, by raw state id.
+     * Compiled on first use and discarded whenever tags are reloaded.
+     */
+    @Nullable
+    private volatile int[] lookup;
+
     public JsonReversableBlockStateConverter(JsonElement json) {
         this(new ArrayList<>(), null);
         json.getAsJsonArray().forEach(entry -> {
@@ -33,15 +42,53 @@ public class JsonReversableBlockStateConverter implements ReversableBlockStateCo
 
     @Override
     public boolean canConvert(@Nullable BlockState state) {
-        return entries.stream().anyMatch(entry -> entry.canConvert(state));
+        return getMatchingEntry(state) != NO_MATCH;
     }
 
     @Override
     public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-        return entries.stream().filter(entry -> entry.canConvert(state))
-                .findFirst()
-                .map(entry -> entry.getConverted(world, state))
-                .orElse(state);
+        int index = getMatchingEntry(state);
+        return index == NO_MATCH ? state : entries.get(index).getConverted(world, state);
+    }
+
+    void invalidateLookup() {
+        lookup = null;
+        if (inverse instanceof JsonReversableBlockStateConverter i) {
+            i.lookup = null;
+        }
+    }
+
+    private int getMatchingEntry(@Nullable BlockState state) {
+        if (state == null) {
+            return NO_MATCH;
+        }
+        int[] lookup = this.lookup;
+        if (lookup == null) {
+            this.lookup = lookup = compileLookup();
+        }
+        int id = Block.getRawIdFromState(state);
+        return id >= 0 && id < lookup.length ? lookup[id] : findMatchingEntry(state);
+    }
+
+    private int[] compileLookup() {
+        int[] lookup = new int[Block.STATE_IDS.size()];
+        Arrays.fill(lookup, NO_MATCH);
+        for (BlockState state : Block.STATE_IDS) {
+            int id = Block.getRawIdFromState(state);
+            if (id >= 0 && id < lookup.length) {
+                lookup[id] = findMatchingEntry(state);
+            }
+        }
+        return lookup;
+    }
+
+    private int findMatchingEntry(BlockState state) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).canConvert(state)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
     }
 
     @Override
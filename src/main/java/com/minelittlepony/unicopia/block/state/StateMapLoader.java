@@ -91,6 +91,17 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
         ));
     }
 
+    /**
+     * Discards the compiled state lookups of every converter so they are rebuilt against the current tags.
+     */
+    public void onTagsLoaded() {
+        converters.values().forEach(converter -> {
+            if (converter instanceof JsonReversableBlockStateConverter c) {
+                c.invalidateLookup();
+            }
+        });
+    }
+
     static class Indirect<T extends BlockStateConverter> implements ReversableBlockStateConverter {
         private final Identifier id;
         private final BlockStateConverter inverse;
@@ -100,19 +111,33 @@ public class StateMapLoader extends JsonDataLoader implements IdentifiableResour
             this.inverse = inverse.orElseGet(() -> new StateMapLoader.Indirect<>(id, Optional.of(this)) {
                 @Override
                 public Optional<BlockStateConverter> get() {
-                    return Optional.ofNullable(INSTANCE.converters.get(id)).map(map -> map.getInverse());
+                    return Optional.ofNullable(getOrNull());
+                }
+
+                @Nullable
+                @Override
+                protected BlockStateConverter getOrNull() {
+                    ReversableBlockStateConverter map = INSTANCE.converters.get(id);
+                    return map == null ? null : map.getInverse();
                 }
             });
         }
 
         @Override
         public boolean canConvert(@Nullable BlockState state) {
-            return get().filter(map -> map.canConvert(state)).isPresent();
+            BlockStateConverter map = getOrNull();
+            return map != null && map.canConvert(state);
         }
 
         @Override
         public @NotNull BlockState getConverted(World world, @NotNull BlockState state) {
-            return get().map(map -> map.getConverted(world, state)).orElse(state);
+            BlockStateConverter map = getOrNull();
+            return map == null ? state : map.getConverted(world, state);
+        }
+
+        @Nullable
+        protected BlockStateConverter getOrNull() {
+            return INSTANCE.converters.get(id);
         }
 
         @SuppressWarnings("unchecked")
@@ -14,30 +14,48 @@ import net.minecraft.world.World;
 public interface ZapStagedBlock {
     ZapAppleStageStore.Stage getStage(BlockState state);
 
+    /**
+     * Whether this block follows the orchard's stages. Persistent (player-placed) blocks do not.
+     */
+    default boolean isStaged(BlockState state) {
+        return true;
+    }
+
     default void updateStage(BlockState state, World world, BlockPos pos) {
         if (!(world instanceof ServerWorld sw)) {
             return;
         }
-        ZapAppleStageStore.Stage currentStage = ZapAppleStageStore.get(sw).getStage();
+        ZapAppleStageStore store = ZapAppleStageStore.get(sw);
+        ZapAppleStageStore.Stage currentStage = store.getStage();
         if (currentStage != getStage(state)) {
             state = getState(currentStage);
             world.setBlockState(pos, state);
         }
-        world.scheduleBlockTick(pos, state.getBlock(), 1);
+        store.trackTree(pos, currentStage);
     }
 
-    default void tryAdvanceStage(BlockState state, ServerWorld world, BlockPos pos, Random random) {
+    /**
+     * Gives this block a chance to move to the current stage.
+     * Called by the {@link ZapAppleStageStore} at night for blocks that are behind the orchard's stage.
+     *
+     * @param elapsed The number of ticks since this block was last given a chance to advance
+     *
+     * @return True once the block has reached the current stage
+     */
+    default boolean tryAdvanceStage(BlockState state, ServerWorld world, BlockPos pos, Random random, int elapsed) {
         ZapAppleStageStore store = ZapAppleStageStore.get(world);
         ZapAppleStageStore.Stage currentStage = store.getStage();
-        if (!world.isDay() && currentStage != getStage(state)) {
-            int transitionRate = getTransitionRate(currentStage);
-            if (transitionRate == 0 || random.nextInt(transitionRate) == 0) {
-                state = getState(currentStage);
-                world.setBlockState(pos, state);
-                onStageChanged(store, currentStage, world, state, pos, random);
-            }
+        if (currentStage == getStage(state)) {
+            return true;
+        }
+        int transitionRate = getTransitionRate(currentStage);
+        if (transitionRate == 0 || random.nextInt(transitionRate) < elapsed) {
+            state = getState(currentStage);
+            world.setBlockState(pos, state);
+            onStageChanged(store, currentStage, world, state, pos, random);
+            return true;
         }
-        world.scheduleBlockTick(pos, state.getBlock(), 1);
+        return false;
     }
 
     default int getTransitionRate(ZapAppleStageStore.Stage stage) {
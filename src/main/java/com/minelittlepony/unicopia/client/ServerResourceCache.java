@@ -0,0 +1,81 @@
+package com.minelittlepony.unicopia.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.network.MsgServerResources.Section;
+
+import net.fabricmc.loader.api.FabricLoader;
+
+/**
+ * Keeps the resource sections received from servers on disk, keyed by their content hash,
+ * so they don't have to be downloaded again the next time the same server (or any other with the same data) is joined.
+ */
+public class ServerResourceCache {
+    private static final int MAX_ENTRIES_PER_SECTION = 8;
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory = FabricLoader.getInstance().getGameDir().resolve("unicopia").resolve("server_resources");
+
+    public Optional<Section.Payload> load(Section section, String hash) {
+        // hashes come from the server, so never let them be used as anything other than a file name
+        if (!HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path file = getFile(section, hash);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (hash.equals(Section.Payload.hash(data))) {
+                // touch so recently used entries are the last to be pruned
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                return Optional.of(new Section.Payload(hash, data));
+            }
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Unicopia.LOGGER.warn("Could not read cached server resources " + file, e);
+        }
+        return Optional.empty();
+    }
+
+    public void store(Section section, Section.Payload payload) {
+        Path file = getFile(section, payload.hash());
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, payload.data());
+            prune(file.getParent());
+        } catch (IOException e) {
+            Unicopia.LOGGER.warn("Could not write cached server resources " + file, e);
+        }
+    }
+
+    private void prune(Path sectionDirectory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(sectionDirectory)) {
+            files = stream.sorted(Comparator.comparing(ServerResourceCache::getLastModified).reversed()).toList();
+        }
+        for (int i = MAX_ENTRIES_PER_SECTION; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private Path getFile(Section section, String hash) {
+        return directory.resolve(section.name().toLowerCase(Locale.ROOT)).resolve(hash + ".bin");
+    }
+
+    private static long getLastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
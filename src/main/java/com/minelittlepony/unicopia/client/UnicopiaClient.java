@@ -18,14 +18,18 @@ import com.minelittlepony.unicopia.client.minelittlepony.MineLPDelegate;
 import com.minelittlepony.unicopia.client.render.shader.ViewportShader;
 import com.minelittlepony.unicopia.client.render.spell.SpellEffectsRenderDispatcher;
 import com.minelittlepony.unicopia.container.*;
+import com.minelittlepony.unicopia.entity.collision.CollisionShapeRegistry;
 import com.minelittlepony.unicopia.entity.player.PlayerCamera;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.network.handler.ClientNetworkHandlerImpl;
+import com.minelittlepony.unicopia.server.world.AirColumnCache;
 import com.minelittlepony.unicopia.server.world.WeatherConditions;
 import com.minelittlepony.unicopia.server.world.ZapAppleStageStore;
 import com.minelittlepony.unicopia.util.Lerp;
+import com.minelittlepony.unicopia.util.TraceHelper;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
 import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
@@ -117,6 +121,8 @@ public class UnicopiaClient implements ClientModInitializer {
 
         ClientTickEvents.END_CLIENT_TICK.register(this::onTick);
         ClientTickEvents.END_WORLD_TICK.register(this::onWorldTick);
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> AirColumnCache.of(world).onChunkChanged(chunk.getPos()));
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> AirColumnCache.of(world).onChunkChanged(chunk.getPos()));
         ScreenInitCallback.EVENT.register(this::onScreenInit);
         ItemTooltipCallback.EVENT.register(new ModifierTooltipRenderer());
 
@@ -129,9 +135,12 @@ public class UnicopiaClient implements ClientModInitializer {
     private void onTick(MinecraftClient client) {
         KeyBindingsHandler.INSTANCE.tick(client);
         UHud.INSTANCE.tick();
+        TraceHelper.clearCache();
     }
 
     private void onWorldTick(ClientWorld world) {
+        CollisionShapeRegistry.get(world).tick();
+
         BlockPos pos = MinecraftClient.getInstance().getCameraEntity().getBlockPos();
         float tickDelta = MinecraftClient.getInstance().getTickDelta();
 
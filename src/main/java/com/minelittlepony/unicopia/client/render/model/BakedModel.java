@@ -1,21 +1,26 @@
 package com.minelittlepony.unicopia.client.render.model;
 
-import java.util.List;
-
 import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 import org.joml.Vector4f;
 
-import com.minelittlepony.unicopia.client.render.RenderUtil;
-
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.util.math.MatrixStack;
 
 public class BakedModel {
-    protected final List<RenderUtil.Vertex> vertices = new ObjectArrayList<>();
+    private static final int VERTEX_SIZE = 5;
+
+    /**
+     * Baked vertices stored as consecutive (x, y, z, u, v) entries.
+     */
+    protected final FloatArrayList vertices = new FloatArrayList();
 
     private final Matrix4f textureMatrix = new Matrix4f();
 
+    private final Vector4f pos = new Vector4f();
+    private final Vector4f tex = new Vector4f();
+
     public Matrix4f getTextureMatrix() {
         return textureMatrix;
     }
@@ -29,7 +34,11 @@ public class BakedModel {
     }
 
     protected void addVertex(float x, float y, float z, float u, float v) {
-        vertices.add(new RenderUtil.Vertex(x, y, z, u, v));
+        vertices.add(x);
+        vertices.add(y);
+        vertices.add(z);
+        vertices.add(u);
+        vertices.add(v);
     }
 
     public final void render(MatrixStack matrices, VertexConsumer buffer, int light, int overlay, float scale, float r, float g, float b, float a) {
@@ -41,9 +50,11 @@ public class BakedModel {
         matrices.push();
         matrices.scale(scale, scale, scale);
         Matrix4f positionmatrix = matrices.peek().getPositionMatrix();
-        for (RenderUtil.Vertex vertex : vertices) {
-            Vector4f pos = vertex.position(positionmatrix);
-            Vector4f tex = vertex.texture(textureMatrix);
+        boolean transformUvs = !isIdentity(textureMatrix);
+        float[] data = vertices.elements();
+        for (int i = 0, n = vertices.size(); i < n; i += VERTEX_SIZE) {
+            positionmatrix.transform(data[i], data[i + 1], data[i + 2], 1, pos);
+            transformUv(transformUvs, data[i + 3], data[i + 4]);
             buffer.vertex(pos.x, pos.y, pos.z, r, g, b, a, tex.x, tex.y, overlay, light, 0, 0, 0);
         }
         matrices.pop();
@@ -59,15 +70,29 @@ public class BakedModel {
         matrices.push();
         matrices.scale(scale, scale, scale);
         Matrix4f positionmatrix = matrices.peek().getPositionMatrix();
-        for (RenderUtil.Vertex vertex : vertices) {
-            Vector4f pos = vertex.position(positionmatrix);
-            Vector4f tex = vertex.texture(textureMatrix);
+        boolean transformUvs = !isIdentity(textureMatrix);
+        float[] data = vertices.elements();
+        for (int i = 0, n = vertices.size(); i < n; i += VERTEX_SIZE) {
+            positionmatrix.transform(data[i], data[i + 1], data[i + 2], 1, pos);
+            transformUv(transformUvs, data[i + 3], data[i + 4]);
             buffer.vertex(pos.x, pos.y, pos.z).texture(tex.x, tex.y).color(r, g, b, a).light(getLightAt(pos, light)).next();
         }
         matrices.pop();
         textureMatrix.identity();
     }
 
+    private void transformUv(boolean transform, float u, float v) {
+        if (transform) {
+            textureMatrix.transform(u, v, 1, 1, tex);
+        } else {
+            tex.set(u, v, 1, 1);
+        }
+    }
+
+    private static boolean isIdentity(Matrix4fc matrix) {
+        return (matrix.properties() & Matrix4fc.PROPERTY_IDENTITY) != 0;
+    }
+
     protected int getLightAt(Vector4f pos, int light) {
         return light;
     }
@@ -43,7 +43,7 @@ class GravityCommand {
         Pony iplayer = Pony.of(player);
 
         iplayer.getPhysics().setBaseGravityModifier(gravity);
-        iplayer.setDirty();
+        iplayer.setDirty(Pony.SyncSection.GRAVITY);
 
         sendFeedback(source, player, "set", true, gravity);
         return 0;
@@ -56,7 +56,9 @@ class SpeciesCommand {
         if (race.isPermitted(player)) {
             Pony pony = Pony.of(player);
             pony.setSpecies(race);
-            pony.setDirty();
+            pony.setDirty(Pony.SyncSection.SPECIES);
+            pony.setDirty(Pony.SyncSection.POWERS);
+            pony.setDirty(Pony.SyncSection.GRAVITY);
 
             if (race.isUnset()) {
                 Channel.SERVER_SELECT_TRIBE.sendToPlayer(new MsgTribeSelect(Race.allPermitted(player), "gui.unicopia.tribe_selection.welcome"), (ServerPlayerEntity)player);
@@ -59,7 +59,7 @@ public class SpellbookChapterLoader extends JsonDataLoader implements Identifiab
     public void sendUpdate(MinecraftServer server) {
         if (dirty) {
             dirty = false;
-            MsgServerResources msg = new MsgServerResources();
+            MsgServerResources msg = MsgServerResources.manifest();
             server.getWorlds().forEach(world -> {
                 Channel.SERVER_RESOURCES.sendToAllPlayers(msg, world);
             });
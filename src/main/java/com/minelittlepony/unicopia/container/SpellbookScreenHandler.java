@@ -5,12 +5,11 @@ import java.util.function.Predicate;
 
 import org.jetbrains.annotations.Nullable;
 
-import com.minelittlepony.unicopia.ability.magic.spell.crafting.SpellbookRecipe;
+import com.minelittlepony.unicopia.ability.magic.spell.crafting.SpellbookRecipeIndex;
 import com.minelittlepony.unicopia.compat.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.container.inventory.*;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.UItems;
-import com.minelittlepony.unicopia.item.URecipes;
 import com.mojang.datafixers.util.Pair;
 
 import net.minecraft.enchantment.EnchantmentHelper;
@@ -23,11 +22,11 @@ import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.packet.s2c.play.ScreenHandlerSlotUpdateS2CPacket;
-import net.minecraft.recipe.RecipeEntry;
 import net.minecraft.screen.PlayerScreenHandler;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.ScreenHandlerContext;
 import net.minecraft.screen.slot.Slot;
+import net.minecraft.screen.slot.SlotActionType;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Hand;
 import net.minecraft.util.Identifier;
@@ -60,6 +59,8 @@ public class SpellbookScreenHandler extends ScreenHandler {
 
     private final SpellbookState state;
 
+    private boolean resultOutdated;
+
     @Nullable
     public UUID entityId;
 
@@ -187,13 +188,33 @@ public class SpellbookScreenHandler extends ScreenHandler {
     @Override
     public void onContentChanged(Inventory inventory) {
         super.onContentChanged(inventory);
+        // a single click can change many slots, so the result is only worked out once the handler next syncs
+        resultOutdated = true;
+    }
+
+    @Override
+    public void onSlotClick(int slotIndex, int button, SlotActionType actionType, PlayerEntity player) {
+        if (slotIndex == outputSlot.id) {
+            updateResult();
+        }
+        super.onSlotClick(slotIndex, button, actionType, player);
+    }
+
+    @Override
+    public void sendContentUpdates() {
+        updateResult();
+        super.sendContentUpdates();
+    }
+
+    private void updateResult() {
+        if (!resultOutdated) {
+            return;
+        }
+        resultOutdated = false;
         context.run((world, pos) -> {
             if (!world.isClient && !gemSlot.getStack().isEmpty()) {
-                Comparator<RecipeEntry<SpellbookRecipe>> comparator = Comparator.comparing(e -> e.value().getPriority());
-                ItemStack resultStack = input.hasIngredients() ? world.getServer().getRecipeManager()
-                        .getAllMatches(URecipes.SPELLBOOK, input, world)
-                        .stream().sorted(comparator)
-                        .findFirst()
+                ItemStack resultStack = input.hasIngredients() ? SpellbookRecipeIndex.of(world.getServer().getRecipeManager())
+                        .findFirstMatch(input, world)
                         .filter(recipe -> result.shouldCraftRecipe(world, (ServerPlayerEntity)this.inventory.player, recipe))
                         .map(recipe -> recipe.value().craft(input, world.getRegistryManager()))
                         .orElseGet(this::getFallbackStack) : ItemStack.EMPTY;
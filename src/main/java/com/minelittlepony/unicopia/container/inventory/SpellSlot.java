@@ -71,7 +71,7 @@ public class SpellSlot extends Slot implements SpellbookSlot {
 
     @Override
     public void markDirty() {
-        pony.setDirty();
+        pony.setDirty(Pony.SyncSection.CHARMS);
     }
 
     @Override
@@ -10,14 +10,12 @@ import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.Nullable;
 
-import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.ItemDuck;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
 import net.minecraft.client.item.TooltipContext;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.FoodComponent;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -70,12 +68,15 @@ public record DietProfile(
 
     @Nullable
     public FoodComponent getAdjustedFoodComponent(ItemStack stack) {
-        var food = stack.getItem().getFoodComponent();
+        return getAdjustedFoodComponent(stack.getItem().getFoodComponent(), getRatios(stack));
+    }
+
+    @Nullable
+    public FoodComponent getAdjustedFoodComponent(FoodComponent food, Pair<Float, Float> ratios) {
         if (this == EMPTY) {
             return food;
         }
 
-        var ratios = getRatios(stack);
         if (isInedible(ratios)) {
             return null;
         }
@@ -103,10 +104,9 @@ public record DietProfile(
         return Pair.of(hungerMultiplier, saturationMultiplier);
     }
 
-    public void appendTooltip(ItemStack stack, @Nullable PlayerEntity user, List<Text> tooltip, TooltipContext context) {
+    public void appendTooltip(ItemStack stack, Pair<Float, Float> ratios, Optional<FoodComponent> nonAdjustedFood, List<Text> tooltip, TooltipContext context) {
         var food = stack.getItem().getFoodComponent();
 
-        var ratios = getRatios(stack);
         if (food == null || isInedible(ratios)) {
             if (stack.getUseAction() != UseAction.DRINK) {
                 tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.not_edible")).formatted(Formatting.DARK_GRAY));
@@ -117,30 +117,16 @@ public record DietProfile(
         float baseMultiplier = (isForaged(stack) ? foragingMultiplier() : defaultMultiplier());
 
         if (context.isAdvanced()) {
-            var nonAdjustedFood = getNonAdjustedFoodComponent(stack, user).orElse(food);
+            var baseFood = nonAdjustedFood.orElse(food);
             tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.base_multiplier", baseMultiplier).formatted(Formatting.DARK_GRAY)));
-            tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.hunger.detailed", food.getHunger(), nonAdjustedFood.getHunger(), (int)(ratios.getFirst() * 100))).formatted(Formatting.DARK_GRAY));
-            tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.saturation.detailed", food.getSaturationModifier(), nonAdjustedFood.getSaturationModifier(), (int)(ratios.getSecond() * 100))).formatted(Formatting.DARK_GRAY));
+            tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.hunger.detailed", food.getHunger(), baseFood.getHunger(), (int)(ratios.getFirst() * 100))).formatted(Formatting.DARK_GRAY));
+            tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.saturation.detailed", food.getSaturationModifier(), baseFood.getSaturationModifier(), (int)(ratios.getSecond() * 100))).formatted(Formatting.DARK_GRAY));
         } else {
             tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.hunger", (int)(ratios.getFirst() * 100))).formatted(Formatting.DARK_GRAY));
             tooltip.add(Text.literal(" ").append(Text.translatable("unicopia.diet.saturation", (int)(ratios.getSecond() * 100))).formatted(Formatting.DARK_GRAY));
         }
     }
 
-    private Optional<FoodComponent> getNonAdjustedFoodComponent(ItemStack stack, @Nullable PlayerEntity user) {
-        @Nullable
-        Pony pony = Pony.of(user);
-        Optional<FoodComponent> food = ((ItemDuck)stack.getItem()).getOriginalFoodComponent();
-
-        if (food.isEmpty() && pony.getObservedSpecies().hasIronGut()) {
-            return findEffect(stack)
-                .flatMap(Effect::foodComponent)
-                .or(() -> PonyDiets.getInstance().getEffects(stack).foodComponent());
-        }
-
-        return food;
-    }
-
     public record Multiplier(
             Set<TagKey<Item>> tags,
             float hunger,
@@ -166,7 +152,7 @@ public record DietProfile(
         }
 
         public void toBuffer(PacketByteBuf buffer) {
-            buffer.writeCollection(tags, (p, t) -> p.writeIdentifier(t.id()));
+            buffer.writeCollection(tags.stream().map(TagKey::id).sorted().toList(), PacketByteBuf::writeIdentifier);
             buffer.writeFloat(hunger);
             buffer.writeFloat(saturation);
         }
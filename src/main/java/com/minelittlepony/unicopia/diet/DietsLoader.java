@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
@@ -77,7 +78,8 @@ public class DietsLoader implements IdentifiableResourceReloadListener {
 
     private static CompletableFuture<Map<Identifier, JsonElement>> loadData(ResourceManager manager, Executor prepareExecutor, String path) {
         return CompletableFuture.supplyAsync(() -> {
-            Map<Identifier, JsonElement> results = new HashMap<>();
+            // sorted so effects are always listed, and synced, in the same order
+            Map<Identifier, JsonElement> results = new TreeMap<>();
             JsonDataLoader.load(manager, path, Resources.GSON, results);
             return results;
         });
@@ -1,8 +1,13 @@
 package com.minelittlepony.unicopia.diet;
 
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -10,9 +15,13 @@ import com.minelittlepony.unicopia.Race;
 import com.minelittlepony.unicopia.entity.effect.FoodPoisoningStatusEffect;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.ItemDuck;
+import com.mojang.datafixers.util.Pair;
+
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.FoodComponent;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.text.Text;
@@ -25,6 +34,19 @@ public class PonyDiets implements DietView {
     private final Map<Race, DietProfile> diets;
     private final List<Effect> effects;
 
+    /**
+     * Effects and food values already worked out for each race and item.
+     * Tags are the only thing besides the diets themselves that can change these, so they're thrown out whenever tags are reloaded.
+     */
+    private final Map<Race, Map<Item, Resolution>> resolutions = new ConcurrentHashMap<>();
+
+    /**
+     * The ponies using items on the current thread, innermost last.
+     * Vanilla reads food values straight from the shared item, so while a pony is on top
+     * those reads are answered from its resolution rather than by changing the item.
+     */
+    private static final ThreadLocal<Deque<Optional<Pony>>> CONSUMERS = ThreadLocal.withInitial(ArrayDeque::new);
+
     private static PonyDiets INSTANCE = new PonyDiets(Map.of(), List.of());
 
     public static PonyDiets getInstance() {
@@ -35,6 +57,31 @@ public class PonyDiets implements DietView {
         INSTANCE = diets;
     }
 
+    public static void onTagsLoaded() {
+        INSTANCE.resolutions.clear();
+    }
+
+    /**
+     * Starts a span during which the given entity is the one using items on this thread.
+     * Every call must be paired with a call to {@link #endConsuming()}.
+     */
+    public static void beginConsuming(LivingEntity user) {
+        CONSUMERS.get().addLast(Pony.of(user));
+    }
+
+    public static void endConsuming() {
+        CONSUMERS.get().pollLast();
+    }
+
+    /**
+     * Gets the pony currently using items on this thread, or null if items should report their own food values.
+     */
+    @Nullable
+    public static Pony getConsumer() {
+        Optional<Pony> consumer = CONSUMERS.get().peekLast();
+        return consumer == null ? null : consumer.orElse(null);
+    }
+
     PonyDiets(Map<Race, DietProfile> diets, List<Effect> effects) {
         this.diets = diets;
         this.effects = effects;
@@ -45,65 +92,88 @@ public class PonyDiets implements DietView {
     }
 
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeMap(diets, (b, r) -> b.writeRegistryValue(Race.REGISTRY, r), (b, e) -> e.toBuffer(b));
+        // written in a fixed order so the same diets always encode to the same bytes
+        Map<Race, DietProfile> sorted = new TreeMap<>(Comparator.comparing(Race::getId));
+        sorted.putAll(diets);
+        buffer.writeMap(sorted, (b, r) -> b.writeRegistryValue(Race.REGISTRY, r), (b, e) -> e.toBuffer(b));
         buffer.writeCollection(effects, (b, e) -> e.toBuffer(b));
     }
 
-    private DietProfile getDiet(Pony pony) {
-        return Optional.ofNullable(diets.get(pony.getObservedSpecies())).orElse(DietProfile.EMPTY);
+    private DietProfile getDiet(Race race) {
+        return Optional.ofNullable(diets.get(race)).orElse(DietProfile.EMPTY);
     }
 
     Effect getEffects(ItemStack stack) {
         return effects.stream().filter(effect -> effect.test(stack)).findFirst().orElse(Effect.EMPTY);
     }
 
-    private Effect getEffects(ItemStack stack, Pony pony) {
-        return getDiet(pony).findEffect(stack).orElseGet(() -> getEffects(stack));
+    /**
+     * Gets the food value of an item for a pony, or null if they can't eat it.
+     */
+    @Nullable
+    public FoodComponent getFoodComponent(Pony pony, Item item) {
+        return resolve(pony, item).food();
+    }
+
+    private Resolution resolve(Pony pony, Item item) {
+        Race race = pony.getObservedSpecies();
+        // tags are held by the item's registry entry, so stacks of the same item always resolve the same way
+        return resolutions.computeIfAbsent(race, r -> new ConcurrentHashMap<>()).computeIfAbsent(item, i -> {
+            ItemStack stack = i.getDefaultStack();
+            DietProfile diet = getDiet(race);
+            Optional<Effect> dietEffect = diet.findEffect(stack);
+            Effect effect = getEffects(stack);
+            Optional<FoodComponent> baseFood = ((ItemDuck)item).getOriginalFoodComponent();
+            if (baseFood.isEmpty() && race.hasIronGut()) {
+                baseFood = dietEffect.flatMap(Effect::foodComponent).or(effect::foodComponent);
+            }
+            Pair<Float, Float> ratios = diet.getRatios(stack);
+            return new Resolution(
+                    dietEffect.orElse(effect),
+                    ratios,
+                    baseFood,
+                    baseFood.map(food -> diet.getAdjustedFoodComponent(food, ratios)).orElse(null)
+            );
+        });
     }
 
     @Override
     public TypedActionResult<ItemStack> startUsing(ItemStack stack, World world, PlayerEntity user, Hand hand) {
-        return initEdibility(stack, user)
+        return Pony.of(user) != null
                 ? FoodPoisoningStatusEffect.apply(stack, user)
                 : TypedActionResult.fail(stack);
     }
 
     @Override
     public void finishUsing(ItemStack stack, World world, LivingEntity entity) {
-        if (initEdibility(stack, entity)) {
-            Pony.of(entity).ifPresent(pony -> getEffects(stack, pony).afflict(pony, stack));
-        }
+        Pony.of(entity).ifPresent(pony -> resolve(pony, stack.getItem()).effect().afflict(pony, stack));
     }
 
     @Override
     public void appendTooltip(ItemStack stack, @Nullable PlayerEntity user, List<Text> tooltip, TooltipContext context) {
-        if (initEdibility(stack, user)) {
-            Pony pony = Pony.of(user);
-
-            tooltip.add(Text.translatable("unicopia.diet.information").formatted(Formatting.DARK_PURPLE));
-            getEffects(stack, pony).appendTooltip(stack, tooltip, context);
-            getDiet(pony).appendTooltip(stack, user, tooltip, context);
+        Pony pony = Pony.of(user);
+        if (pony != null) {
+            Resolution resolution = resolve(pony, stack.getItem());
+
+            // the tooltips read the food value from the item, so they need to see this pony's one
+            beginConsuming(user);
+            try {
+                tooltip.add(Text.translatable("unicopia.diet.information").formatted(Formatting.DARK_PURPLE));
+                resolution.effect().appendTooltip(stack, tooltip, context);
+                getDiet(pony.getObservedSpecies()).appendTooltip(stack, resolution.ratios(), resolution.baseFood(), tooltip, context);
+            } finally {
+                endConsuming();
+            }
         }
     }
 
-    private boolean initEdibility(ItemStack stack, LivingEntity user) {
-        ItemDuck item = (ItemDuck)stack.getItem();
-        item.resetFoodComponent();
-        return Pony.of(user).filter(pony -> {
-            DietProfile diet = getDiet(pony);
-
-            if (!stack.isFood() && pony.getObservedSpecies().hasIronGut()) {
-                diet.findEffect(stack)
-                    .flatMap(Effect::foodComponent)
-                    .or(() -> getEffects(stack).foodComponent())
-                    .ifPresent(item::setFoodComponent);
-            }
-
-            if (stack.isFood()) {
-                item.setFoodComponent(diet.getAdjustedFoodComponent(stack));
-            }
-
-            return true;
-        }).isPresent();
-    }
+    /**
+     * What an item does when eaten by a particular race.
+     *
+     * @param effect   The effect applied when it's eaten
+     * @param ratios   The hunger and saturation multipliers applied to its food value
+     * @param baseFood The item's food value before the multipliers are applied
+     * @param food     The item's food value after the multipliers are applied, or null if it can't be eaten
+     */
+    private record Resolution(Effect effect, Pair<Float, Float> ratios, Optional<FoodComponent> baseFood, @Nullable FoodComponent food) {}
 }
@@ -16,6 +16,7 @@ import com.minelittlepony.unicopia.util.Tickable;
 
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtString;
@@ -52,6 +53,10 @@ public class Enchantments implements NbtSerialisable, Tickable {
 
     @Override
     public void tick() {
+        if (equippedEnchantments.isEmpty() && !hasEnchantedEquipment()) {
+            return;
+        }
+
         UEnchantments.REGISTRY.forEach(ench -> {
             int level = EnchantmentHelper.getEquipmentLevel(ench, entity.asEntity());
 
@@ -73,6 +78,15 @@ public class Enchantments implements NbtSerialisable, Tickable {
         });
     }
 
+    private boolean hasEnchantedEquipment() {
+        for (ItemStack stack : entity.asEntity().getItemsEquipped()) {
+            if (stack.hasEnchantments()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void toNBT(NbtCompound compound) {
         NbtList list = new NbtList();
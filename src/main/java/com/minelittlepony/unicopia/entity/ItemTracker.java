@@ -4,6 +4,8 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.minelittlepony.unicopia.compat.trinkets.TrinketsDelegate;
 import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.util.*;
@@ -71,17 +73,33 @@ public class ItemTracker implements NbtSerialisable, Copyable<ItemTracker>, Tick
     }
 
     private void update(Living<?> living, Stream<ItemStack> stacks) {
-        final Set<Trackable> found = new HashSet<>();
-        final Set<ItemStack> foundStacks = new HashSet<>();
-        stacks.forEach(stack -> {
+        @Nullable
+        Set<Trackable> found = null;
+        @Nullable
+        Set<ItemStack> foundStacks = null;
+        for (ItemStack stack : (Iterable<ItemStack>)stacks::iterator) {
             if (stack.getItem() instanceof Trackable trackable) {
+                if (found == null) {
+                    found = new HashSet<>();
+                    foundStacks = new HashSet<>();
+                }
                 items.compute(trackable, (item, prev) -> prev == null ? 1 : prev + 1);
                 found.add(trackable);
                 foundStacks.add(stack);
             }
-        });
+        }
+
+        if (found == null) {
+            if (!items.isEmpty()) {
+                items.forEach((item, ticks) -> item.onUnequipped(living, ticks));
+                items.clear();
+            }
+            return;
+        }
+
+        final Set<Trackable> equipped = found;
         items.entrySet().removeIf(e -> {
-            if (!found.contains(e.getKey())) {
+            if (!equipped.contains(e.getKey())) {
                 e.getKey().onUnequipped(living, e.getValue());
                 return true;
             }
@@ -402,12 +402,18 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
 
     private void updateDragonBreath() {
         if (!entity.getWorld().isClient && (entity instanceof PlayerEntity || entity.hasCustomName())) {
+            DragonBreathStore store = DragonBreathStore.get(entity.getWorld());
+            if (!store.hasMailInFlight()) {
+                return;
+            }
+            String name = entity.getDisplayName().getString();
+            if (!store.hasMailDue(name)) {
+                return;
+            }
 
             Vec3d targetPos = entity.getRotationVector().multiply(2).add(entity.getEyePos());
 
             if (entity.getWorld().isAir(BlockPos.ofFloored(targetPos))) {
-                DragonBreathStore store = DragonBreathStore.get(entity.getWorld());
-                String name = entity.getDisplayName().getString();
                 store.popEntries(name).forEach(stack -> {
                     ItemStack payload = stack.payload();
                     Item item = payload.getItem();
@@ -478,6 +484,13 @@ public abstract class Living<T extends LivingEntity> implements Equine<T>, Caste
         }
     }
 
+    /**
+     * Called whenever a status effect is added to, upgraded on, or removed from this entity.
+     */
+    public void onStatusEffectsChanged() {
+
+    }
+
     @Nullable
     public final Caster<?> getAttacker() {
         return attacker;
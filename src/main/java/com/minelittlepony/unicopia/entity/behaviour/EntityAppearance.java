@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -46,13 +47,29 @@ import net.minecraft.entity.passive.AllayEntity;
 import net.minecraft.entity.passive.BatEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.projectile.ShulkerBulletEntity;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.util.shape.VoxelShape;
 
 public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provider, FlightType.Provider, EntityCollisions.ComplexCollidable {
     private static final Optional<Float> BLOCK_HEIGHT = Optional.of(0.5F);
 
+    /**
+     * Entity data that has no bearing on how a disguise looks, collides, or is sized.
+     * Everything else (type, flags, equipment, and variant data) is kept in the disguise's appearance profile.
+     */
+    private static final Set<String> NON_VISUAL_KEYS = Set.of(
+            "UUID", "Pos", "Motion", "Rotation", "FallDistance", "Fire", "Air", "OnGround", "Invulnerable", "PortalCooldown",
+            "Passengers", "Tags", "Brain", "Attributes", "active_effects", "HurtTime", "HurtByTimestamp", "DeathTime",
+            "AbsorptionAmount", "FallFlying", "SleepingX", "SleepingY", "SleepingZ", "Leash", "PersistenceRequired",
+            "CanPickUpLoot", "HandDropChances", "ArmorDropChances", "DeathLootTable", "DeathLootTableSeed",
+            "Inventory", "Items", "EnderItems", "Offers", "Gossips", "Xp", "LastRestock", "LastGossipDecay", "RestocksToday",
+            "InLove", "LoveCause", "ForcedAge", "listener", "unicopia_caster"
+    );
+    private static final Set<String> VISUAL_PONY_KEYS = Set.of("playerSpecies", "suppressedSpecies", "hasShades");
+
     @NotNull
     private String entityId = "";
 
@@ -76,6 +93,14 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
     @Nullable
     private NbtCompound entityNbt;
 
+    /**
+     * Hash of the appearance profile most recently written or applied.
+     * Profiles with the same hash are considered to describe the same disguise.
+     */
+    private int profileHash;
+    @Nullable
+    private NbtCompound profile;
+
     @Nullable
     public Entity getAppearance() {
         return entity;
@@ -103,6 +128,8 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
 
         entityNbt = entity == null ? null : encodeEntityToNBT(entity);
         entityId = entityNbt == null ? "" : entityNbt.getString("id");
+        profile = null;
+        profileHash = 0;
     }
 
     public boolean isPresent() {
@@ -304,10 +331,16 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
     public void toNBT(NbtCompound compound) {
         compound.putString("entityId", entityId);
 
-        if (entityNbt != null) {
-            compound.put("entity", entityNbt);
-        } else if (entity != null) {
-            compound.put("entity", encodeEntityToNBT(entity));
+        NbtCompound current = entityNbt != null ? entityNbt : entity != null ? encodeEntityToNBT(entity) : null;
+        if (current != null) {
+            int hash = current.hashCode();
+            // reuse the previous profile when nothing visible has changed so the tracked compound stays equal to what was last sent
+            if (profile == null || hash != profileHash || !profile.equals(current)) {
+                profile = current;
+                profileHash = hash;
+            }
+            compound.put("entity", profile);
+            compound.putInt("entityHash", profileHash);
         }
     }
 
@@ -330,7 +363,15 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
         if (compound.contains("entity", NbtElement.COMPOUND_TYPE)) {
             entityId = newId;
 
-            entityNbt = compound.getCompound("entity");
+            NbtCompound newProfile = compound.getCompound("entity");
+            int newHash = compound.contains("entityHash", NbtElement.INT_TYPE) ? compound.getInt("entityHash") : newProfile.hashCode();
+            if ((entity != null || entityNbt != null) && newHash == profileHash && newProfile.equals(profile)) {
+                // same disguise as before, so there is nothing to rebuild. The hash alone can collide, so the profile is compared as well
+                return;
+            }
+            profileHash = newHash;
+            profile = newProfile;
+            entityNbt = newProfile;
 
             if (entity != null) {
                 try {
@@ -365,21 +406,54 @@ public class EntityAppearance implements NbtSerialisable, PlayerDimensions.Provi
             entityNbt.putByte("playerVisibleParts", player.getDataTracker().get(Disguise.PlayerAccess.getModelBitFlag()));
 
             return NbtSerialisable.subTag("playerNbt", entityNbt, playerNbt -> {
-                player.writeNbt(playerNbt);
-                playerNbt.remove("unicopia_caster");
+                encodePlayerAppearance(player, playerNbt);
                 Pony pony = Pony.of(player);
                 if (pony != null) {
-                    NbtSerialisable.subTag("unicopia_caster", playerNbt, pony::toSyncronisedNbt);
+                    NbtCompound caster = new NbtCompound();
+                    pony.toSyncronisedNbt(caster);
+                    caster.getKeys().removeIf(key -> !VISUAL_PONY_KEYS.contains(key));
+                    playerNbt.put("unicopia_caster", caster);
                 }
             });
         }
 
         entity.saveSelfNbt(entityNbt);
-        entityNbt.remove("unicopia_caster");
+        entityNbt.getKeys().removeIf(NON_VISUAL_KEYS::contains);
 
         return entityNbt;
     }
 
+    /**
+     * Writes only the parts of a player that are seen when disguised as them: what they're wearing and holding,
+     * and whatever is sitting on their shoulders.
+     */
+    private static void encodePlayerAppearance(PlayerEntity player, NbtCompound playerNbt) {
+        NbtList inventory = new NbtList();
+        int selectedSlot = player.getInventory().selectedSlot;
+        writeSlot(inventory, selectedSlot, player.getInventory().getStack(selectedSlot));
+        for (int i = 0; i < player.getInventory().armor.size(); i++) {
+            writeSlot(inventory, 100 + i, player.getInventory().armor.get(i));
+        }
+        writeSlot(inventory, -106, player.getInventory().offHand.get(0));
+
+        playerNbt.put("Inventory", inventory);
+        playerNbt.putInt("SelectedItemSlot", selectedSlot);
+        if (!player.getShoulderEntityLeft().isEmpty()) {
+            playerNbt.put("ShoulderEntityLeft", player.getShoulderEntityLeft());
+        }
+        if (!player.getShoulderEntityRight().isEmpty()) {
+            playerNbt.put("ShoulderEntityRight", player.getShoulderEntityRight());
+        }
+    }
+
+    private static void writeSlot(NbtList inventory, int slot, ItemStack stack) {
+        if (!stack.isEmpty()) {
+            NbtCompound tag = new NbtCompound();
+            tag.putByte("Slot", (byte)slot);
+            inventory.add(stack.writeNbt(tag));
+        }
+    }
+
     @Override
     public void getCollissionShapes(ShapeContext context, Consumer<VoxelShape> output) {
         EntityCollisions.getCollissionShapes(getAppearance(), context, output);
@@ -0,0 +1,187 @@
+package com.minelittlepony.unicopia.entity.collision;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.entity.collision.EntityCollisions.ComplexCollidable;
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.ShapeContext;
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.World;
+
+/**
+ * Keeps track of the entities that contribute extra collision shapes to a world
+ * (complex collidables and disguised casters), bucketed by the chunk sections their shapes overlap.
+ * <p>
+ * Contributors re-register themselves every tick they are active. Entries that are removed
+ * or have not been refreshed recently are dropped when they are next encountered, or by the periodic sweep in {@link #tick()}.
+ */
+public class CollisionShapeRegistry extends PersistentState {
+    private static final Identifier ID = Unicopia.id("collision_shapes");
+    private static final int MAX_AGE = 5;
+    private static final int SWEEP_INTERVAL = 20;
+    private static final double MARGIN = 2;
+
+    private final Map<ComplexCollidable, Entry> entries = new IdentityHashMap<>();
+    private final Long2ObjectMap<Set<Entry>> sections = new Long2ObjectOpenHashMap<>();
+
+    private final World world;
+
+    public static CollisionShapeRegistry get(World world) {
+        return WorldOverlay.getPersistableStorage(world, ID, CollisionShapeRegistry::new, CollisionShapeRegistry::new);
+    }
+
+    CollisionShapeRegistry(World world, NbtCompound compound) {
+        this(world);
+    }
+
+    CollisionShapeRegistry(World world) {
+        this.world = world;
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound compound) {
+        return compound;
+    }
+
+    /**
+     * Registers or refreshes the shapes an entity contributes. Called by contributors once per tick.
+     */
+    public void update(Entity entity, ComplexCollidable collidable) {
+        Box bounds = getBounds(entity, collidable);
+        Entry entry = entries.computeIfAbsent(collidable, c -> new Entry(entity, c));
+        entry.lastUpdate = world.getTime();
+        if (!bounds.equals(entry.bounds)) {
+            unindex(entry);
+            entry.bounds = bounds;
+            index(entry);
+        }
+    }
+
+    public void remove(ComplexCollidable collidable) {
+        Entry entry = entries.remove(collidable);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+
+    /**
+     * Drops entries whose entities have been removed or stopped refreshing them,
+     * so they aren't kept alive by the registry when nothing collides near them.
+     */
+    public void tick() {
+        if (entries.isEmpty() || world.getTime() % SWEEP_INTERVAL != 0) {
+            return;
+        }
+        long now = world.getTime();
+        entries.values().stream()
+            .filter(entry -> isExpired(entry, now))
+            .toList()
+            .forEach(entry -> remove(entry.collidable));
+    }
+
+    public void getCollissionShapes(Entity except, Box box, ShapeContext context, Consumer<VoxelShape> output) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Set<Entry> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Entry> expired = new ArrayList<>();
+        long now = world.getTime();
+
+        forEachSection(box, sectionPos -> {
+            Set<Entry> section = sections.get(sectionPos);
+            if (section == null) {
+                return;
+            }
+            for (Entry entry : section) {
+                if (!visited.add(entry)) {
+                    continue;
+                }
+                if (isExpired(entry, now)) {
+                    expired.add(entry);
+                    continue;
+                }
+                if (entry.entity != except && entry.bounds.intersects(box)) {
+                    entry.collidable.getCollissionShapes(context, output);
+                }
+            }
+        });
+
+        expired.forEach(entry -> remove(entry.collidable));
+    }
+
+    private static boolean isExpired(Entry entry, long now) {
+        return entry.entity.isRemoved() || now - entry.lastUpdate > MAX_AGE;
+    }
+
+    private Box getBounds(Entity entity, ComplexCollidable collidable) {
+        Box[] bounds = { entity.getBoundingBox() };
+        collidable.getCollissionShapes(ShapeContext.absent(), shape -> {
+            if (!shape.isEmpty()) {
+                bounds[0] = bounds[0].union(shape.getBoundingBox());
+            }
+        });
+        return bounds[0].expand(MARGIN);
+    }
+
+    private void index(Entry entry) {
+        forEachSection(entry.bounds, pos -> sections.computeIfAbsent(pos, p -> new HashSet<>()).add(entry));
+    }
+
+    private void unindex(Entry entry) {
+        if (entry.bounds == null) {
+            return;
+        }
+        forEachSection(entry.bounds, pos -> {
+            Set<Entry> section = sections.get(pos);
+            if (section != null && section.remove(entry) && section.isEmpty()) {
+                sections.remove(pos);
+            }
+        });
+    }
+
+    private static void forEachSection(Box box, SectionConsumer consumer) {
+        int minX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minX));
+        int minY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minY));
+        int minZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.minZ));
+        int maxX = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxX));
+        int maxY = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxY));
+        int maxZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(box.maxZ));
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    consumer.accept(ChunkSectionPos.asLong(x, y, z));
+                }
+            }
+        }
+    }
+
+    interface SectionConsumer {
+        void accept(long sectionPos);
+    }
+
+    private static final class Entry {
+        private final Entity entity;
+        private final ComplexCollidable collidable;
+        private Box bounds;
+        private long lastUpdate;
+
+        Entry(Entity entity, ComplexCollidable collidable) {
+            this.entity = entity;
+            this.collidable = collidable;
+        }
+    }
+}
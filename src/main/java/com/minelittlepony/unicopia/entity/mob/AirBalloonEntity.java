@@ -44,6 +44,7 @@ import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.advancement.UCriteria;
 import com.minelittlepony.unicopia.entity.Living;
 import com.minelittlepony.unicopia.entity.MagicImmune;
+import com.minelittlepony.unicopia.entity.collision.CollisionShapeRegistry;
 import com.minelittlepony.unicopia.entity.collision.EntityCollisions;
 import com.minelittlepony.unicopia.entity.collision.MultiBoundingBoxEntity;
 import com.minelittlepony.unicopia.entity.collision.MultiBox;
@@ -263,6 +264,13 @@ public class AirBalloonEntity extends MobEntity implements EntityCollisions.Comp
         updatePassengers(false);
         super.tick();
         setBoundingBox(MultiBox.of(getBoundingBox(), getBoundingBoxes()));
+        CollisionShapeRegistry.get(getWorld()).update(this, this);
+    }
+
+    @Override
+    public void remove(RemovalReason reason) {
+        super.remove(reason);
+        CollisionShapeRegistry.get(getWorld()).remove(this);
     }
 
     private void updatePassengers(boolean move) {
@@ -58,7 +58,7 @@ public class PlayerCharmTracker implements NbtSerialisable {
         if (!Objects.equals(previous, spell)) {
             pony.asEntity().playSound(USounds.GUI_SPELL_EQUIP.value(), 0.25F, 1.75F);
         }
-        pony.setDirty();
+        pony.setDirty(Pony.SyncSection.CHARMS);
         return previous;
     }
 
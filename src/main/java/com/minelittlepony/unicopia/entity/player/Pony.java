@@ -1,6 +1,8 @@
 package com.minelittlepony.unicopia.entity.player;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
@@ -54,6 +56,7 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.potion.PotionUtil;
 import net.minecraft.potion.Potions;
@@ -83,6 +86,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     static final TrackedData<Integer> CORRUPTION = DataTracker.registerData(PlayerEntity.class, TrackedDataHandlerRegistry.INTEGER);
 
     static final int INITIAL_SUN_IMMUNITY = 20;
+    private static final int COMPOSITE_RACE_REFRESH_INTERVAL = 10;
 
     private static final TrackedData<NbtCompound> EFFECT = DataTracker.registerData(PlayerEntity.class, TrackedDataHandlerRegistry.NBT_COMPOUND);
 
@@ -101,10 +105,15 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     private final Interpolator interpolator = new LinearInterpolator();
 
+    private final TrackedRace trackedSpecies = new TrackedRace(RACE, Race.HUMAN);
+    private final TrackedRace trackedSuppressedRace = new TrackedRace(SUPPRESSED_RACE, Race.UNSET);
+
     private Race.Composite compositeRace = Race.UNSET.composite();
+    private boolean compositeRaceDirty = true;
     private Race respawnRace = Race.UNSET;
 
-    private boolean dirty;
+    // everything is sent on the first tick so the client starts out with a complete copy
+    private final Set<SyncSection> dirtySections = EnumSet.allOf(SyncSection.class);
 
     private float magicExhaustion = 0;
 
@@ -215,7 +224,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
      */
     @Override
     public Race getSpecies() {
-        return Race.fromName(entity.getDataTracker().get(RACE), Race.HUMAN);
+        return trackedSpecies.get();
     }
 
     /**
@@ -253,6 +262,7 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     public void setSuppressedRace(Race race) {
         entity.getDataTracker().set(SUPPRESSED_RACE, race.validate(entity).getId().toString());
+        compositeRaceDirty = true;
     }
 
     public void clearSuppressedRace() {
@@ -260,7 +270,14 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     }
 
     public Race getSuppressedRace() {
-        return Race.fromName(entity.getDataTracker().get(SUPPRESSED_RACE), Race.UNSET);
+        return trackedSuppressedRace.get();
+    }
+
+    /**
+     * Flags the composite race as needing to be recalculated on this player's next tick.
+     */
+    public void markCompositeRaceDirty() {
+        compositeRaceDirty = true;
     }
 
     public TraitDiscovery getDiscoveries() {
@@ -323,21 +340,43 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
         return getSpecies().getAffinity();
     }
 
+    /**
+     * Marks every group of capabilities as needing to be sent to the client.
+     * Only meant for when the client's copy has to be rebuilt entirely, such as after respawning.
+     * Use {@link #setDirty(SyncSection)} for anything else.
+     */
     @Override
     public void setDirty() {
-        dirty = true;
+        dirtySections.addAll(SyncSection.ALL);
+    }
+
+    /**
+     * Marks a single group of capabilities as needing to be sent to the client.
+     */
+    public void setDirty(SyncSection section) {
+        dirtySections.add(section);
+    }
+
+    /**
+     * Sends everything another player can see of this one to a player that just started tracking them.
+     */
+    public void onStartedTrackingBy(ServerPlayerEntity observer) {
+        Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToPlayer(new MsgOtherPlayerCapabilities(this, SyncSection.OBSERVABLE), observer);
     }
 
     private void sendCapabilities() {
-        if (!dirty) {
+        if (dirtySections.isEmpty()) {
             return;
         }
-        dirty = false;
+        Set<SyncSection> sections = EnumSet.copyOf(dirtySections);
+        dirtySections.clear();
 
         if (entity instanceof ServerPlayerEntity) {
-            MsgOtherPlayerCapabilities packet = new MsgOtherPlayerCapabilities(this);
-            Channel.SERVER_PLAYER_CAPABILITIES.sendToPlayer(packet, (ServerPlayerEntity)entity);
-            Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToSurroundingPlayers(packet, entity);
+            Channel.SERVER_PLAYER_CAPABILITIES.sendToPlayer(new MsgPlayerCapabilities(this, sections), (ServerPlayerEntity)entity);
+            sections.retainAll(SyncSection.OBSERVABLE);
+            if (!sections.isEmpty()) {
+                Channel.SERVER_OTHER_PLAYER_CAPABILITIES.sendToSurroundingPlayers(new MsgOtherPlayerCapabilities(this, sections), entity);
+            }
         }
     }
 
@@ -389,7 +428,11 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     @Override
     public boolean beforeUpdate() {
-        if (compositeRace.includes(Race.UNSET) || entity.age % 2 == 0) {
+        // the tracked races are resolved first so changes sent from the server flag the composite race as dirty
+        getSpecies();
+        getSuppressedRace();
+        // amulets running out of charge and disguise targets changing race have no event of their own, so those are polled
+        if (compositeRaceDirty || compositeRace.includes(Race.UNSET) || entity.age % COMPOSITE_RACE_REFRESH_INTERVAL == 0) {
             recalculateCompositeRace();
         }
 
@@ -483,8 +526,10 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     }
 
     private void recalculateCompositeRace() {
+        compositeRaceDirty = false;
         Race intrinsicRace = getSpecies();
         Race suppressedRace = getSuppressedRace();
+        Race.Composite previous = compositeRace;
         compositeRace = MetamorphosisStatusEffect.getEffectiveRace(entity, getSpellSlot()
                 .get(SpellPredicate.IS_MIMIC, true)
                 .map(AbstractDisguiseSpell::getDisguise)
@@ -497,7 +542,14 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
             : null,
             AmuletSelectors.PEARL_NECKLACE.test(entity) ? suppressedRace.or(Race.SEAPONY) : null
         );
-        UCriteria.PLAYER_CHANGE_RACE.trigger(entity);
+        if (!compositeRace.equals(previous)) {
+            UCriteria.PLAYER_CHANGE_RACE.trigger(entity);
+        }
+    }
+
+    @Override
+    public void onStatusEffectsChanged() {
+        compositeRaceDirty = true;
     }
 
     @Override
@@ -576,18 +628,18 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
             if (entity.age % (10 * ItemTracker.SECONDS) == 0) {
                 if (entity.getWorld().random.nextInt(100) == 0) {
                     corruption.add(-1);
-                    setDirty();
+                    setDirty(SyncSection.LEVELS);
                 }
 
                 if (entity.getHealth() >= entity.getMaxHealth() - 1 && !entity.getHungerManager().isNotFull()) {
                     corruption.add(-entity.getWorld().random.nextInt(4));
-                    setDirty();
+                    setDirty(SyncSection.LEVELS);
                 }
             }
 
             if (entity.hurtTime == 1 && getCompositeRace().physical().canCast()) {
                 corruption.add(1);
-                setDirty();
+                setDirty(SyncSection.LEVELS);
             }
         }
     }
@@ -901,6 +953,16 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
         }
     }
 
+    private NbtCompound toLivingSyncronisedNbt() {
+        NbtCompound compound = new NbtCompound();
+        super.toSyncronisedNbt(compound);
+        return compound;
+    }
+
+    private void fromLivingSynchronizedNbt(NbtCompound compound) {
+        super.fromSynchronizedNbt(compound);
+    }
+
     @Override
     public void copyFrom(Pony oldPlayer, boolean alive) {
 
@@ -955,12 +1017,13 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
 
     @Override
     public void onSpellSet(@Nullable Spell spell) {
+        compositeRaceDirty = true;
         if (spell != null) {
             if (spell.getAffinity() == Affinity.BAD && entity.getWorld().random.nextInt(120) == 0) {
                 getCorruption().add(1);
             }
             getCorruption().add((int)spell.getTraits().getCorruption());
-            setDirty();
+            setDirty(SyncSection.LEVELS);
         }
     }
 
@@ -993,4 +1056,145 @@ public class Pony extends Living<PlayerEntity> implements Copyable<Pony>, Update
     public static boolean equal(PlayerEntity one, PlayerEntity two) {
         return one == two || (one != null && two != null && equal(one.getGameProfile(), two.getGameProfile()));
     }
+
+    /**
+     * A race stored in the data tracker, only parsed again when the tracked id is replaced.
+     */
+    private final class TrackedRace {
+        private final TrackedData<String> param;
+        private final Race fallback;
+
+        @Nullable
+        private String lastValue;
+        private Race value;
+
+        TrackedRace(TrackedData<String> param, Race fallback) {
+            this.param = param;
+            this.fallback = fallback;
+        }
+
+        public Race get() {
+            String id = entity.getDataTracker().get(param);
+            // the tracker stores a new string instance whenever the race is set, so an identical instance has already been parsed
+            if (id != lastValue) {
+                lastValue = id;
+                value = Race.fromName(id, fallback);
+                compositeRaceDirty = true;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Groups of capabilities that are synchronised with the client independently of each other.
+     * <p>
+     * Sections are written in declaration order using a compact binary encoding and
+     * only those marked as observable are sent to players other than the owner.
+     */
+    public enum SyncSection {
+        LIVING(true, (pony, buffer) -> buffer.writeNbt(pony.toLivingSyncronisedNbt()), buffer -> {
+            NbtCompound compound = buffer.readNbt();
+            return pony -> pony.fromLivingSynchronizedNbt(compound);
+        }),
+        SPECIES(true, (pony, buffer) -> {
+            buffer.writeRegistryValue(Race.REGISTRY, pony.getSpecies());
+            buffer.writeRegistryValue(Race.REGISTRY, pony.getSuppressedRace());
+        }, buffer -> {
+            Race species = buffer.readRegistryValue(Race.REGISTRY);
+            Race suppressedSpecies = buffer.readRegistryValue(Race.REGISTRY);
+            return pony -> {
+                pony.setSpecies(species == null ? Race.HUMAN : species);
+                pony.setSuppressedRace(suppressedSpecies == null ? Race.UNSET : suppressedSpecies);
+            };
+        }),
+        POWERS(true, pony -> pony.powers),
+        GRAVITY(true, pony -> pony.gravity),
+        CHARMS(false, pony -> pony.charms),
+        DISCOVERIES(false, pony -> pony.discoveries),
+        LEVELS(true, (pony, buffer) -> {
+            buffer.writeVarInt(pony.levels.get());
+            buffer.writeVarInt(pony.corruption.get());
+        }, buffer -> {
+            int levels = buffer.readVarInt();
+            int corruption = buffer.readVarInt();
+            return pony -> {
+                pony.levels.set(levels);
+                pony.corruption.set(corruption);
+            };
+        }),
+        MANA(true, pony -> pony.mana),
+        ACROBATICS(true, pony -> pony.acrobatics),
+        STATUS(true, (pony, buffer) -> {
+            buffer.writeFloat(pony.magicExhaustion);
+            buffer.writeVarInt(pony.ticksInvulnerable);
+            buffer.writeVarInt(pony.ticksInSun);
+            buffer.writeBoolean(pony.hasShades);
+            buffer.writeVarInt(pony.ticksMetamorphising);
+        }, buffer -> {
+            float magicExhaustion = buffer.readFloat();
+            int ticksInvulnerable = buffer.readVarInt();
+            int ticksInSun = buffer.readVarInt();
+            boolean hasShades = buffer.readBoolean();
+            int ticksMetamorphising = buffer.readVarInt();
+            return pony -> {
+                pony.magicExhaustion = magicExhaustion;
+                pony.ticksInvulnerable = ticksInvulnerable;
+                pony.ticksInSun = ticksInSun;
+                pony.hasShades = hasShades;
+                pony.ticksMetamorphising = ticksMetamorphising;
+            };
+        }),
+        ADVANCEMENTS(false, (pony, buffer) -> {
+            buffer.writeMap(pony.advancementProgress, PacketByteBuf::writeString, PacketByteBuf::writeVarInt);
+        }, buffer -> {
+            Map<String, Integer> progress = buffer.readMap(PacketByteBuf::readString, PacketByteBuf::readVarInt);
+            return pony -> {
+                pony.advancementProgress.clear();
+                pony.advancementProgress.putAll(progress);
+            };
+        });
+
+        public static final Set<SyncSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(SyncSection.class));
+        public static final Set<SyncSection> OBSERVABLE = Collections.unmodifiableSet(EnumSet.copyOf(ALL.stream().filter(SyncSection::isObservable).toList()));
+
+        private final boolean observable;
+        private final Writer writer;
+        private final Reader reader;
+
+        SyncSection(boolean observable, Function<Pony, NbtSerialisable> component) {
+            this(observable, (pony, buffer) -> buffer.writeNbt(component.apply(pony).toNBT()), buffer -> {
+                NbtCompound compound = buffer.readNbt();
+                return pony -> component.apply(pony).fromNBT(compound);
+            });
+        }
+
+        SyncSection(boolean observable, Writer writer, Reader reader) {
+            this.observable = observable;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        /**
+         * Whether this section is needed by players other than the one it belongs to.
+         */
+        public boolean isObservable() {
+            return observable;
+        }
+
+        public void write(Pony pony, PacketByteBuf buffer) {
+            writer.write(pony, buffer);
+        }
+
+        public Consumer<Pony> read(PacketByteBuf buffer) {
+            return reader.read(buffer);
+        }
+
+        interface Writer {
+            void write(Pony pony, PacketByteBuf buffer);
+        }
+
+        interface Reader {
+            Consumer<Pony> read(PacketByteBuf buffer);
+        }
+    }
 }
@@ -90,9 +90,7 @@ public class BellItem extends Item implements ChargeableItem {
                 ChargeableItem.setEnergy(stack, 0);
             }
 
-            pony.spawnParticles(pony.getPhysics().getHeadPosition().toCenterPos(), new Sphere(false, 0.5F), 7, p -> {
-                pony.addParticle(new MagicParticleEffect(0xAAFFFF), p, Vec3d.ZERO);
-            });
+            pony.spawnParticles(pony.getPhysics().getHeadPosition().toCenterPos(), new Sphere(false, 0.5F), 7, new MagicParticleEffect(0xAAFFFF));
 
             return TypedActionResult.consume(stack);
         }
@@ -41,7 +41,10 @@ public class DragonBreathScrollItem extends Item {
                    world.playSound(null, player.getBlockPos(), USounds.Vanilla.BLOCK_ANVIL_LAND, SoundCategory.NEUTRAL, 0.2F, (float)world.random.nextTriangular(1, 0.2F));
                }
             });
-            DragonBreathStore.get(world).put(recipient, payload.split(1));
+            ItemStack parcel = payload.split(1);
+            if (!DragonBreathStore.get(world).put(recipient, parcel)) {
+                player.getInventory().offerOrDrop(parcel);
+            }
         }
         player.playSound(USounds.ITEM_DRAGON_BREATH_SCROLL_USE, 1, 1);
         return TypedActionResult.consume(stack);
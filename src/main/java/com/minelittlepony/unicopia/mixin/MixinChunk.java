@@ -0,0 +1,28 @@
+package com.minelittlepony.unicopia.mixin;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.world.chunk.Chunk;
+
+@Mixin(Chunk.class)
+abstract class MixinChunk implements WorldOverlay.PendingChunkData {
+    @Unique
+    @Nullable
+    private NbtCompound pendingOverlayData;
+
+    @Override
+    @Nullable
+    public NbtCompound getPendingOverlayData() {
+        return pendingOverlayData;
+    }
+
+    @Override
+    public void setPendingOverlayData(@Nullable NbtCompound data) {
+        pendingOverlayData = data;
+    }
+}
@@ -0,0 +1,29 @@
+package com.minelittlepony.unicopia.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.ChunkSerializer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.poi.PointOfInterestStorage;
+
+@Mixin(ChunkSerializer.class)
+abstract class MixinChunkSerializer {
+    @Inject(method = "serialize", at = @At("RETURN"))
+    private static void onSerialize(ServerWorld world, Chunk chunk, CallbackInfoReturnable<NbtCompound> info) {
+        WorldOverlay.onChunkWritten(world, chunk, info.getReturnValue());
+    }
+
+    @Inject(method = "deserialize", at = @At("RETURN"))
+    private static void onDeserialize(ServerWorld world, PointOfInterestStorage poiStorage, ChunkPos chunkPos, NbtCompound nbt, CallbackInfoReturnable<ProtoChunk> info) {
+        WorldOverlay.onChunkRead(info.getReturnValue(), nbt);
+    }
+}
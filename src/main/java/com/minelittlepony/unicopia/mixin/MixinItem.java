@@ -3,15 +3,20 @@ package com.minelittlepony.unicopia.mixin;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Supplier;
 
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
-import org.spongepowered.asm.mixin.Mutable;
-import org.spongepowered.asm.mixin.gen.Accessor;
-import com.google.common.base.Suppliers;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
 import com.minelittlepony.unicopia.diet.DietView;
+import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.minelittlepony.unicopia.entity.ItemImpl;
 import com.minelittlepony.unicopia.entity.ItemImpl.GroundTickCallback;
+import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.item.ItemDuck;
 import net.minecraft.item.FoodComponent;
 import net.minecraft.item.Item;
@@ -19,22 +24,35 @@ import net.minecraft.item.Item;
 @Mixin(Item.class)
 abstract class MixinItem implements ItemDuck, DietView.Holder {
     private final List<ItemImpl.GroundTickCallback> tickCallbacks = new ArrayList<>();
-    private final Supplier<Optional<FoodComponent>> originalFoodComponent = Suppliers.memoize(() -> {
-        return Optional.ofNullable(((Item)(Object)this).getFoodComponent());
-    });
+
+    @Shadow
+    @Final
+    @Nullable
+    private FoodComponent foodComponent;
 
     @Override
     public List<GroundTickCallback> getCallbacks() {
         return tickCallbacks;
     }
 
-    @Override
-    @Mutable
-    @Accessor("foodComponent")
-    public abstract void setFoodComponent(FoodComponent food);
-
     @Override
     public Optional<FoodComponent> getOriginalFoodComponent() {
-        return originalFoodComponent.get();
+        return Optional.ofNullable(foodComponent);
+    }
+
+    @Inject(method = "getFoodComponent", at = @At("HEAD"), cancellable = true)
+    private void onGetFoodComponent(CallbackInfoReturnable<FoodComponent> info) {
+        Pony consumer = PonyDiets.getConsumer();
+        if (consumer != null) {
+            info.setReturnValue(PonyDiets.getInstance().getFoodComponent(consumer, (Item)(Object)this));
+        }
+    }
+
+    @Inject(method = "isFood", at = @At("HEAD"), cancellable = true)
+    private void onIsFood(CallbackInfoReturnable<Boolean> info) {
+        Pony consumer = PonyDiets.getConsumer();
+        if (consumer != null) {
+            info.setReturnValue(PonyDiets.getInstance().getFoodComponent(consumer, (Item)(Object)this) != null);
+        }
     }
 }
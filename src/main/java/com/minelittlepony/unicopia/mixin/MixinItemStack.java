@@ -6,6 +6,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import com.minelittlepony.unicopia.diet.DietView;
+import com.minelittlepony.unicopia.diet.PonyDiets;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
@@ -18,16 +19,29 @@ import net.minecraft.world.World;
 abstract class MixinItemStack {
     @Inject(method = "use", at = @At("HEAD"), cancellable = true)
     private void onUse(World world, PlayerEntity user, Hand hand, CallbackInfoReturnable<TypedActionResult<ItemStack>> info) {
+        PonyDiets.beginConsuming(user);
         ItemStack self = (ItemStack)(Object)this;
         TypedActionResult<ItemStack> result = ((DietView.Holder)self.getItem()).getDiets(self).startUsing(self, world, user, hand);
         if (result.getResult() != ActionResult.PASS) {
+            PonyDiets.endConsuming();
             info.setReturnValue(result);
         }
     }
 
+    @Inject(method = "use", at = @At("RETURN"))
+    private void afterUse(World world, PlayerEntity user, Hand hand, CallbackInfoReturnable<TypedActionResult<ItemStack>> info) {
+        PonyDiets.endConsuming();
+    }
+
     @Inject(method = "finishUsing", at = @At("HEAD"))
     private void onFinishUsing(World world, LivingEntity user, CallbackInfoReturnable<ItemStack> info) {
+        PonyDiets.beginConsuming(user);
         ItemStack self = (ItemStack)(Object)this;
         ((DietView.Holder)self.getItem()).getDiets(self).finishUsing(self, world, user);
     }
+
+    @Inject(method = "finishUsing", at = @At("RETURN"))
+    private void afterFinishUsing(World world, LivingEntity user, CallbackInfoReturnable<ItemStack> info) {
+        PonyDiets.endConsuming();
+    }
 }
@@ -14,6 +14,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import com.minelittlepony.unicopia.ability.magic.Caster;
 import com.minelittlepony.unicopia.ability.magic.SpellPredicate;
 import com.minelittlepony.unicopia.ability.magic.spell.AbstractDisguiseSpell;
+import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.minelittlepony.unicopia.entity.*;
 import com.minelittlepony.unicopia.entity.behaviour.EntityAppearance;
 import com.minelittlepony.unicopia.entity.duck.*;
@@ -23,6 +24,7 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.attribute.DefaultAttributeContainer;
 import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.Hand;
@@ -135,6 +137,32 @@ abstract class MixinLivingEntity extends Entity implements LivingEntityDuck, Equ
         get().onJump();
     }
 
+    @Inject(method = {
+            "onStatusEffectApplied(Lnet/minecraft/entity/effect/StatusEffectInstance;Lnet/minecraft/entity/Entity;)V",
+            "onStatusEffectUpgraded(Lnet/minecraft/entity/effect/StatusEffectInstance;ZLnet/minecraft/entity/Entity;)V",
+            "onStatusEffectRemoved(Lnet/minecraft/entity/effect/StatusEffectInstance;)V"
+    }, at = @At("RETURN"))
+    private void onStatusEffectsChanged(CallbackInfo info) {
+        get().onStatusEffectsChanged();
+    }
+
+    @Inject(method = "removeStatusEffectInternal(Lnet/minecraft/entity/effect/StatusEffect;)Lnet/minecraft/entity/effect/StatusEffectInstance;", at = @At("RETURN"))
+    private void onRemoveStatusEffectInternal(CallbackInfoReturnable<StatusEffectInstance> info) {
+        if (info.getReturnValue() != null) {
+            get().onStatusEffectsChanged();
+        }
+    }
+
+    @Inject(method = "tickActiveItemStack()V", at = @At("HEAD"))
+    private void beforeTickActiveItemStack(CallbackInfo info) {
+        PonyDiets.beginConsuming((LivingEntity)(Object)this);
+    }
+
+    @Inject(method = "tickActiveItemStack()V", at = @At("RETURN"))
+    private void afterTickActiveItemStack(CallbackInfo info) {
+        PonyDiets.endConsuming();
+    }
+
     @Inject(method = "tick()V", at = @At("HEAD"), cancellable = true)
     private void beforeTick(CallbackInfo info) {
         if (get().beforeUpdate()) {
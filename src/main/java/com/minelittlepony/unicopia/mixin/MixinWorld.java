@@ -9,7 +9,9 @@ import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import com.minelittlepony.unicopia.ability.data.tree.TreeCache;
 import com.minelittlepony.unicopia.entity.duck.RotatedView;
+import com.minelittlepony.unicopia.server.world.AirColumnCache;
 import com.minelittlepony.unicopia.server.world.BlockDestructionManager;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
@@ -18,9 +20,11 @@ import net.minecraft.world.World;
 import net.minecraft.world.WorldAccess;
 
 @Mixin(World.class)
-abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, RotatedView {
+abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source, AirColumnCache.Source, TreeCache.Source, RotatedView {
 
     private final Supplier<BlockDestructionManager> destructions = BlockDestructionManager.create((World)(Object)this);
+    private final AirColumnCache airColumns = new AirColumnCache((World)(Object)this);
+    private final TreeCache trees = new TreeCache((World)(Object)this);
 
     private int recurseCount = 0;
     private final Stack<Integer> rotations = new Stack<>();
@@ -46,6 +50,16 @@ abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source
         return destructions.get();
     }
 
+    @Override
+    public AirColumnCache getAirColumnCache() {
+        return airColumns;
+    }
+
+    @Override
+    public TreeCache getTreeCache() {
+        return trees;
+    }
+
     @Inject(method = "sendEntityStatus(Lnet/minecraft/entity/Entity;B)V", at = @At("HEAD"))
     private void onSendEntityStatus(Entity entity, byte status, CallbackInfo info) {
         if (mirrorEntityStatuses) {
@@ -63,6 +77,10 @@ abstract class MixinWorld implements WorldAccess, BlockDestructionManager.Source
     @Inject(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("RETURN"))
     public void onSetBlockState(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> info) {
         recurseCount = Math.max(0, recurseCount - 1);
+        if (info.getReturnValueZ()) {
+            airColumns.onBlockChanged(pos);
+            trees.onBlockChanged(pos);
+        }
     }
 }
 
@@ -1,12 +1,18 @@
 package com.minelittlepony.unicopia.mixin;
 
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.minelittlepony.unicopia.entity.duck.RotatedView;
+import com.minelittlepony.unicopia.server.world.WorldOverlay;
 
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.ProtoChunk;
 import net.minecraft.world.chunk.WorldChunk;
 
 @Mixin(WorldChunk.class)
@@ -26,4 +32,9 @@ abstract class MixinWorldChunk {
     private int modifyFluidPos(int y) {
         return ((RotatedView)((WorldChunk)(Object)this).getWorld()).applyRotation(y);
     }
+
+    @Inject(method = "<init>(Lnet/minecraft/server/world/ServerWorld;Lnet/minecraft/world/chunk/ProtoChunk;Lnet/minecraft/world/chunk/WorldChunk$EntityLoader;)V", at = @At("RETURN"))
+    private void onInit(ServerWorld world, ProtoChunk protoChunk, @Nullable WorldChunk.EntityLoader entityLoader, CallbackInfo info) {
+        ((WorldOverlay.PendingChunkData)this).setPendingOverlayData(((WorldOverlay.PendingChunkData)protoChunk).getPendingOverlayData());
+    }
 }
@@ -1,29 +1,127 @@
 package com.minelittlepony.unicopia.network;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.sollace.fabwork.api.packets.Packet;
 
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
 
 /**
  * Sent by the server to update block destruction progress on the client.
+ * <p>
+ * Changes are grouped by chunk section, with each position packed relative to its section
+ * and each damage value quantised to a byte.
  */
-public record MsgBlockDestruction (Long2ObjectMap<Float> destructions) implements Packet {
+public record MsgBlockDestruction (List<Section> sections) implements Packet {
+    private static final int MAX_PAYLOAD_SIZE = 1048576;
+    private static final float DAMAGE_SCALE = 10;
+
     MsgBlockDestruction(PacketByteBuf buffer) {
-        this(new Long2ObjectOpenHashMap<>());
-        int size = buffer.readInt();
-        for (int i = 0; i < size; i++) {
-            destructions.put(buffer.readLong(), (Float)buffer.readFloat());
-        }
+        this(buffer.readList(Section::new));
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeInt(destructions.size());
-        destructions.forEach((p, i) -> {
-            buffer.writeLong(p);
-            buffer.writeFloat(i);
-        });
+        buffer.writeCollection(sections, (b, section) -> section.write(b));
+    }
+
+    public void forEach(Consumer consumer) {
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        sections.forEach(section -> section.forEach(mutable, consumer));
+    }
+
+    public record Section(long pos, short[] positions, byte[] values) {
+        Section(PacketByteBuf buffer) {
+            this(buffer.readLong(), buffer.readVarInt(), buffer);
+        }
+
+        private Section(long pos, int size, PacketByteBuf buffer) {
+            this(pos, new short[size], new byte[size]);
+            for (int i = 0; i < size; i++) {
+                positions[i] = buffer.readShort();
+                values[i] = buffer.readByte();
+            }
+        }
+
+        void write(PacketByteBuf buffer) {
+            buffer.writeLong(pos);
+            buffer.writeVarInt(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                buffer.writeShort(positions[i]);
+                buffer.writeByte(values[i]);
+            }
+        }
+
+        void forEach(BlockPos.Mutable mutable, Consumer consumer) {
+            int x = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(pos));
+            int y = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(pos));
+            int z = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(pos));
+            for (int i = 0; i < positions.length; i++) {
+                short local = positions[i];
+                consumer.accept(mutable.set(
+                        x + ChunkSectionPos.unpackLocalX(local),
+                        y + ChunkSectionPos.unpackLocalY(local),
+                        z + ChunkSectionPos.unpackLocalZ(local)
+                ).asLong(), values[i] / DAMAGE_SCALE);
+            }
+        }
+
+        int getSize() {
+            return Long.BYTES + 5 + positions.length * (Short.BYTES + Byte.BYTES);
+        }
+    }
+
+    public interface Consumer {
+        void accept(long pos, float amount);
+    }
+
+    /**
+     * Collects destruction changes and splits them into as few packets as fit within the payload limit.
+     */
+    public static final class Builder {
+        private final Long2ObjectMap<Entries> sections = new Long2ObjectOpenHashMap<>();
+
+        public void add(long pos, float amount) {
+            BlockPos blockPos = BlockPos.fromLong(pos);
+            Entries entries = sections.computeIfAbsent(ChunkSectionPos.toLong(blockPos), p -> new Entries());
+            entries.positions.add(ChunkSectionPos.packLocal(blockPos));
+            entries.values.add((byte)MathHelper.clamp(MathHelper.floor(amount * DAMAGE_SCALE), Byte.MIN_VALUE, Byte.MAX_VALUE));
+        }
+
+        public boolean isEmpty() {
+            return sections.isEmpty();
+        }
+
+        public void build(java.util.function.Consumer<MsgBlockDestruction> output) {
+            List<Section> packet = new ArrayList<>();
+            int size = 5;
+            for (Long2ObjectMap.Entry<Entries> entry : sections.long2ObjectEntrySet()) {
+                Section section = new Section(entry.getLongKey(), entry.getValue().positions.toShortArray(), entry.getValue().values.toByteArray());
+                if (!packet.isEmpty() && size + section.getSize() > MAX_PAYLOAD_SIZE) {
+                    output.accept(new MsgBlockDestruction(packet));
+                    packet = new ArrayList<>();
+                    size = 5;
+                }
+                packet.add(section);
+                size += section.getSize();
+            }
+            if (!packet.isEmpty()) {
+                output.accept(new MsgBlockDestruction(packet));
+            }
+            sections.clear();
+        }
+
+        private static final class Entries {
+            private final ShortArrayList positions = new ShortArrayList();
+            private final ByteArrayList values = new ByteArrayList();
+        }
     }
 }
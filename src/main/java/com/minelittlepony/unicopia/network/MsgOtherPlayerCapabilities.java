@@ -1,6 +1,9 @@
 package com.minelittlepony.unicopia.network;
 
+import java.util.Set;
+
 import com.minelittlepony.unicopia.entity.player.Pony;
+import com.minelittlepony.unicopia.entity.player.Pony.SyncSection;
 
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.player.PlayerEntity;
@@ -15,8 +18,8 @@ public class MsgOtherPlayerCapabilities extends MsgPlayerCapabilities {
         super(buffer);
     }
 
-    public MsgOtherPlayerCapabilities(Pony player) {
-        super(player);
+    public MsgOtherPlayerCapabilities(Pony player, Set<SyncSection> sections) {
+        super(player, sections);
     }
 
     @Override
@@ -0,0 +1,47 @@
+package com.minelittlepony.unicopia.network;
+
+import com.minelittlepony.unicopia.particle.ParticleFactoryHelper;
+import com.minelittlepony.unicopia.util.shape.PointGenerator;
+import com.minelittlepony.unicopia.util.shape.ShapeCodec;
+import com.sollace.fabwork.api.packets.Packet;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.util.math.random.Random;
+import net.minecraft.world.World;
+
+/**
+ * Sent by the server to spawn a number of stationary particles at random points within a shape.
+ * <p>
+ * Only the shape and a seed are sent. The points themselves are generated by the client.
+ */
+public record MsgParticleBurst (
+        ParticleEffect effect,
+        PointGenerator shape,
+        int count,
+        long seed
+    ) implements Packet {
+
+    MsgParticleBurst(PacketByteBuf buffer) {
+        this(
+            ParticleFactoryHelper.PARTICLE_EFFECT_CODEC.read(buffer),
+            ShapeCodec.CODEC.read(buffer),
+            buffer.readVarInt(),
+            buffer.readLong()
+        );
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        ParticleFactoryHelper.PARTICLE_EFFECT_CODEC.write(buffer, effect);
+        ShapeCodec.CODEC.write(buffer, shape);
+        buffer.writeVarInt(count);
+        buffer.writeLong(seed);
+    }
+
+    public void spawnParticles(World world) {
+        shape.randomPoints(count, Random.create(seed)).forEach(point -> {
+            world.addParticle(effect, point.x, point.y, point.z, 0, 0, 0);
+        });
+    }
+}
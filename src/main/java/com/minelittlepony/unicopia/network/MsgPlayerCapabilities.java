@@ -1,55 +1,63 @@
 package com.minelittlepony.unicopia.network;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.entity.player.Pony;
+import com.minelittlepony.unicopia.entity.player.Pony.SyncSection;
 import com.sollace.fabwork.api.packets.HandledPacket;
 
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtIo;
-import net.minecraft.nbt.NbtTagSizeTracker;
 
 /**
  * Sent to the client to update various data pertaining to a particular player.
  * <p>
+ * Only the sections that have changed since the last update are included.
+ * <p>
  * Also used by the server to notify a race change.
  */
 public class MsgPlayerCapabilities implements HandledPacket<PlayerEntity> {
 
     protected final UUID playerId;
 
-    private final NbtCompound compoundTag;
+    private final EnumSet<SyncSection> sections;
+
+    private final PacketByteBuf payload;
+
+    private final List<Consumer<Pony>> updates;
 
     MsgPlayerCapabilities(PacketByteBuf buffer) {
         playerId = buffer.readUuid();
-        try (InputStream in = new ByteBufInputStream(buffer)) {
-            compoundTag = NbtIo.readCompressed(in, NbtTagSizeTracker.ofUnlimitedBytes());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        sections = buffer.readEnumSet(SyncSection.class);
+        payload = null;
+        updates = new ArrayList<>(sections.size());
+        for (SyncSection section : sections) {
+            updates.add(section.read(buffer));
         }
     }
 
-    public MsgPlayerCapabilities(Pony player) {
+    public MsgPlayerCapabilities(Pony player, Set<SyncSection> sections) {
         playerId = player.asEntity().getUuid();
-        compoundTag = new NbtCompound();
-        player.toSyncronisedNbt(compoundTag);
+        this.sections = EnumSet.copyOf(sections);
+        payload = new PacketByteBuf(Unpooled.buffer());
+        for (SyncSection section : this.sections) {
+            section.write(player, payload);
+        }
+        updates = List.of();
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
         buffer.writeUuid(playerId);
-        try (OutputStream out = new ByteBufOutputStream(buffer)) {
-            NbtIo.writeCompressed(compoundTag, out);
-        } catch (IOException e) {
-        }
+        buffer.writeEnumSet(sections, SyncSection.class);
+        buffer.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
     }
 
     @Override
@@ -60,7 +68,7 @@ public class MsgPlayerCapabilities implements HandledPacket<PlayerEntity> {
             return;
         }
 
-        player.fromSynchronizedNbt(compoundTag);
+        updates.forEach(update -> update.accept(player));
     }
 
     protected Pony getRecipient(PlayerEntity sender) {
@@ -0,0 +1,34 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.sollace.fabwork.api.packets.HandledPacket;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Sent by the client to ask for the contents of any resource sections it does not have cached.
+ *
+ * @param sections The hash the client was told about for each of the sections it wants
+ */
+public record MsgRequestServerResources (Map<MsgServerResources.Section, String> sections) implements HandledPacket<ServerPlayerEntity> {
+    MsgRequestServerResources(PacketByteBuf buffer) {
+        this(buffer.readMap(size -> new EnumMap<>(MsgServerResources.Section.class), b -> b.readEnumConstant(MsgServerResources.Section.class), PacketByteBuf::readString));
+    }
+
+    @Override
+    public void toBuffer(PacketByteBuf buffer) {
+        buffer.writeMap(sections, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeString);
+    }
+
+    @Override
+    public void handle(ServerPlayerEntity sender) {
+        Set<MsgServerResources.Section> accepted = ResourceRequestTracker.accept(sender, sections);
+        if (!accepted.isEmpty()) {
+            Channel.SERVER_RESOURCES.sendToPlayer(MsgServerResources.of(accepted), sender);
+        }
+    }
+}
@@ -1,46 +1,145 @@
 package com.minelittlepony.unicopia.network;
 
 import java.util.*;
+import java.util.function.Supplier;
 
-import com.minelittlepony.unicopia.InteractionManager;
+import org.jetbrains.annotations.Nullable;
+
+import com.google.common.hash.Hashing;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.container.SpellbookChapterLoader;
 import com.minelittlepony.unicopia.diet.PonyDiets;
 import com.sollace.fabwork.api.packets.Packet;
 
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.PacketByteBuf;
-import net.minecraft.util.Identifier;
 
+/**
+ * Sent by the server to tell the client which data-driven resources it is using.
+ * <p>
+ * Every section is identified by a hash of its contents. Sections are only included in full
+ * when the client has asked for them, so clients that already have a section cached never download it again.
+ *
+ * @param hashes   The content hash of every section the server has
+ * @param payloads The encoded contents of the sections the client asked for
+ */
 public record MsgServerResources (
-        Map<Identifier, SpellTraits> traits,
-        Map<Identifier, ?> chapters,
-        Map<Identifier, TreeTypeLoader.TreeTypeDef> treeTypes,
-        PonyDiets diets
+        Map<Section, String> hashes,
+        Map<Section, byte[]> payloads
     ) implements Packet {
-    public MsgServerResources() {
-        this(
-            SpellTraits.all(),
-            SpellbookChapterLoader.INSTANCE.getChapters(),
-            TreeTypeLoader.INSTANCE.getEntries(),
-            PonyDiets.getInstance()
-        );
+
+    /**
+     * Creates a message listing the current hash of every section without any of their contents.
+     */
+    public static MsgServerResources manifest() {
+        return of(Set.of());
     }
 
-    public MsgServerResources(PacketByteBuf buffer) {
+    /**
+     * Creates a message listing the current hash of every section along with the contents of the requested ones.
+     */
+    public static MsgServerResources of(Set<Section> requested) {
+        Map<Section, String> hashes = new EnumMap<>(Section.class);
+        Map<Section, byte[]> payloads = new EnumMap<>(Section.class);
+        for (Section section : Section.VALUES) {
+            Section.Payload payload = section.getPayload();
+            hashes.put(section, payload.hash());
+            if (requested.contains(section)) {
+                payloads.put(section, payload.data());
+            }
+        }
+        return new MsgServerResources(hashes, payloads);
+    }
+
+    MsgServerResources(PacketByteBuf buffer) {
         this(
-            buffer.readMap(PacketByteBuf::readIdentifier, SpellTraits::fromPacket),
-            InteractionManager.instance().readChapters(buffer),
-            buffer.readMap(PacketByteBuf::readIdentifier, TreeTypeLoader.TreeTypeDef::new),
-            new PonyDiets(buffer)
+            buffer.readMap(size -> new EnumMap<>(Section.class), b -> b.readEnumConstant(Section.class), PacketByteBuf::readString),
+            buffer.readMap(size -> new EnumMap<>(Section.class), b -> b.readEnumConstant(Section.class), PacketByteBuf::readByteArray)
         );
     }
 
     @Override
     public void toBuffer(PacketByteBuf buffer) {
-        buffer.writeMap(traits, PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
-        buffer.writeMap(chapters, PacketByteBuf::writeIdentifier, (r, v) -> ((SpellbookChapterLoader.Chapter)v).write(r));
-        buffer.writeMap(treeTypes, PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
-        diets.toBuffer(buffer);
+        buffer.writeMap(hashes, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeString);
+        buffer.writeMap(payloads, PacketByteBuf::writeEnumConstant, PacketByteBuf::writeByteArray);
+    }
+
+    /**
+     * A group of resources that is hashed, cached, and sent independently of the others.
+     */
+    public enum Section {
+        TRAITS(SpellTraits::all, (buffer, traits) -> {
+            buffer.writeMap(new TreeMap<>(traits), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
+        }),
+        CHAPTERS(SpellbookChapterLoader.INSTANCE::getChapters, (buffer, chapters) -> {
+            buffer.writeMap(new TreeMap<>(chapters), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
+        }),
+        TREES(TreeTypeLoader.INSTANCE::getEntries, (buffer, trees) -> {
+            buffer.writeMap(new TreeMap<>(trees), PacketByteBuf::writeIdentifier, (r, v) -> v.write(r));
+        }),
+        DIETS(PonyDiets::getInstance, (buffer, diets) -> diets.toBuffer(buffer));
+
+        static final Section[] VALUES = values();
+
+        private final Encoder<?> encoder;
+
+        <T> Section(Supplier<T> source, PacketByteBuf.PacketWriter<T> writer) {
+            encoder = new Encoder<>(source, writer);
+        }
+
+        /**
+         * Gets the encoded contents of this section.
+         * Contents are only encoded again after the resources they come from have been reloaded.
+         */
+        public Payload getPayload() {
+            return encoder.get();
+        }
+
+        /**
+         * The encoded contents of a section.
+         *
+         * @param hash A hex encoded SHA-256 hash of the data
+         * @param data The section's contents, as written to a packet buffer
+         */
+        public record Payload(String hash, byte[] data) {
+            public static String hash(byte[] data) {
+                return Hashing.sha256().hashBytes(data).toString();
+            }
+
+            public PacketByteBuf toBuffer() {
+                return new PacketByteBuf(Unpooled.wrappedBuffer(data));
+            }
+        }
+
+        private static final class Encoder<T> {
+            private final Supplier<T> source;
+            private final PacketByteBuf.PacketWriter<T> writer;
+
+            @Nullable
+            private T lastSource;
+            @Nullable
+            private Payload payload;
+
+            Encoder(Supplier<T> source, PacketByteBuf.PacketWriter<T> writer) {
+                this.source = source;
+                this.writer = writer;
+            }
+
+            synchronized Payload get() {
+                T current = source.get();
+                // every loader replaces its data with a new instance when reloaded
+                if (payload == null || current != lastSource) {
+                    PacketByteBuf buffer = new PacketByteBuf(Unpooled.buffer());
+                    writer.accept(buffer, current);
+                    byte[] data = new byte[buffer.readableBytes()];
+                    buffer.readBytes(data);
+                    buffer.release();
+                    lastSource = current;
+                    payload = new Payload(Payload.hash(data), data);
+                }
+                return payload;
+            }
+        }
     }
 }
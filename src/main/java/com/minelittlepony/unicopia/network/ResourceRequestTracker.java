@@ -0,0 +1,59 @@
+package com.minelittlepony.unicopia.network;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.minelittlepony.unicopia.network.MsgServerResources.Section;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Decides which resource requests from each player are worth answering.
+ * <p>
+ * A section is only sent when the hash the player asked for is the one the server currently has,
+ * and only once per player for each hash. Players sending more than a handful of requests in a short time are ignored
+ * until it passes, so a client can't turn a tiny request packet into an unbounded amount of upload.
+ */
+final class ResourceRequestTracker {
+    private static final int MAX_REQUESTS = 16;
+    private static final long REQUEST_WINDOW = 60_000;
+
+    private static final Map<UUID, Entry> PLAYERS = new ConcurrentHashMap<>();
+
+    public static Set<Section> accept(ServerPlayerEntity player, Map<Section, String> requested) {
+        Entry entry = PLAYERS.computeIfAbsent(player.getUuid(), id -> new Entry());
+        Set<Section> accepted = EnumSet.noneOf(Section.class);
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (now - entry.windowStart > REQUEST_WINDOW) {
+                entry.windowStart = now;
+                entry.requests = 0;
+            }
+            if (++entry.requests > MAX_REQUESTS) {
+                return accepted;
+            }
+            requested.forEach((section, hash) -> {
+                String current = section.getPayload().hash();
+                if (current.equals(hash) && !current.equals(entry.sent.get(section))) {
+                    entry.sent.put(section, current);
+                    accepted.add(section);
+                }
+            });
+        }
+        return accepted;
+    }
+
+    public static void forget(ServerPlayerEntity player) {
+        PLAYERS.remove(player.getUuid());
+    }
+
+    private static final class Entry {
+        private final Map<Section, String> sent = new EnumMap<>(Section.class);
+        private long windowStart;
+        private int requests;
+    }
+}
@@ -157,10 +157,24 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
         return false;
     }
 
+    /**
+     * Returns true if there are no spells to update and no new spell data has arrived through the data tracker.
+     */
+    public boolean isIdle(boolean synchronize) {
+        return spells.isEmpty() && !spells.isDirty() && (!synchronize || owner.asEntity().getDataTracker().get(param) == lastValue);
+    }
+
     @SuppressWarnings("unchecked")
     private <T extends Spell> Stream<T> read(@Nullable SpellPredicate<T> type, boolean synchronize, boolean sendUpdate) {
-        if (synchronize && spells.fromNbt(owner.asEntity().getDataTracker().get(param)) && sendUpdate) {
-            write();
+        if (synchronize) {
+            NbtCompound value = owner.asEntity().getDataTracker().get(param);
+            // the tracked compound is replaced whenever it changes, so an identical instance has already been read
+            if (value != lastValue) {
+                lastValue = value;
+                if (spells.fromNbt(value) && sendUpdate) {
+                    write();
+                }
+            }
         }
 
         if (type == null) {
@@ -170,6 +184,10 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
     }
 
     private boolean reduce(boolean update, Alteration alteration) {
+        if (isIdle(update)) {
+            return false;
+        }
+
         boolean initial = false;
         for (Spell i : read(null, update, false).toList()) {
             initial = alteration.apply(initial, i);
@@ -180,11 +198,22 @@ public class EffectSync implements SpellContainer, NbtSerialisable {
     }
 
     private void write() {
-        if (spells.isDirty()) {
-            owner.asEntity().getDataTracker().set(param, spells.toNbt());
+        long time = owner.asWorld().getTime();
+        if (spells.isDirty() || spells.needsSnapshot(time)) {
+            lastValue = spells.toSyncNbt(time);
+            owner.asEntity().getDataTracker().set(param, lastValue);
         }
     }
 
+    /**
+     * Called when a new player starts tracking the owner so they receive every spell
+     * rather than a delta of the ones that changed since the last snapshot.
+     */
+    public void onStartedTracking() {
+        spells.requestSnapshot();
+        write();
+    }
+
     @Override
     public void toNBT(NbtCompound compound) {
         compound.put("spells", spells.toNbt());
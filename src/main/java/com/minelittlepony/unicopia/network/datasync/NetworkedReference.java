@@ -15,5 +15,10 @@ public interface NetworkedReference<T> {
 
     NbtCompound toNbt();
 
+    /**
+     * Writes this reference for sending to clients, clearing its dirty state.
+     */
+    NbtCompound toSyncNbt();
+
     boolean isDirty();
 }
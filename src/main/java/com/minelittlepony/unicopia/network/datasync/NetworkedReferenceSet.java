@@ -1,6 +1,7 @@
 package com.minelittlepony.unicopia.network.datasync;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,17 +14,35 @@ import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.nbt.NbtString;
 
+/**
+ * A synchronised, ordered set of references.
+ * <p>
+ * Updates sent through {@link #toSyncNbt(long)} are either full snapshots or deltas.
+ * A delta carries the complete list of keys but only the bodies of references that changed
+ * since the last full snapshot, each tagged with a version so the receiving side can skip
+ * bodies it has already applied. Full snapshots are sent whenever the set of keys changes,
+ * when a new client starts tracking (see {@link #requestSnapshot()}), and periodically afterwards.
+ */
 public class NetworkedReferenceSet<T> {
+    private static final int SNAPSHOT_INTERVAL = 40;
 
     private final List<UUID> ids = new ArrayList<>();
 
     private final Map<UUID, NetworkedReference<T>> values = new HashMap<>();
 
+    private final Object2IntMap<UUID> versions = new Object2IntOpenHashMap<>();
+    private final Map<UUID, NbtCompound> changedSinceSnapshot = new HashMap<>();
+    private long lastSnapshotTime;
+    private boolean keysChanged = true;
+    private boolean pendingSnapshot;
+
     private final Function<T, UUID> uuidConverter;
     private final Supplier<NetworkedReference<T>> factory;
 
@@ -35,6 +54,10 @@ public class NetworkedReferenceSet<T> {
         this.factory = factory;
     }
 
+    public synchronized boolean isEmpty() {
+        return ids.isEmpty() && values.isEmpty();
+    }
+
     public synchronized boolean containsReference(UUID id) {
         return ids.contains(id);
     }
@@ -49,7 +72,10 @@ public class NetworkedReferenceSet<T> {
 
     public synchronized boolean clear() {
         dirty |= !ids.isEmpty() || !values.isEmpty();
+        keysChanged |= dirty;
         ids.clear();
+        versions.clear();
+        changedSinceSnapshot.clear();
         try {
             reading = true;
             for (NetworkedReference<T> reference : values.values()) {
@@ -71,6 +97,7 @@ public class NetworkedReferenceSet<T> {
     private synchronized NetworkedReference<T> addReference(UUID newValue) {
         return values.computeIfAbsent(newValue, id -> {
             dirty = true;
+            keysChanged = true;
             ids.remove(id);
             ids.add(0, id);
             return factory.get();
@@ -91,9 +118,12 @@ public class NetworkedReferenceSet<T> {
 
     synchronized void removeReference(UUID id) {
         dirty |= ids.remove(id);
+        versions.removeInt(id);
+        changedSinceSnapshot.remove(id);
         NetworkedReference<T> i = values.remove(id);
         if (i != null) {
             dirty = true;
+            keysChanged = true;
             try {
                 reading = true;
                 i.updateReference(null);
@@ -114,16 +144,33 @@ public class NetworkedReferenceSet<T> {
                 incoming.add(UUID.fromString(key.asString()));
             });
 
+            int[] incomingVersions = comp.getIntArray("versions");
+
             ids.stream().filter(id -> !incoming.contains(id)).toList().forEach(this::removeReference);
 
             boolean[] send = new boolean[1];
-            incoming.forEach(key -> {
+            for (int index = 0; index < incoming.size(); index++) {
+                UUID key = incoming.get(index);
+                String sid = key.toString();
+                int version = index < incomingVersions.length ? incomingVersions[index] : 0;
+
+                if (!comp.contains(sid, NbtElement.COMPOUND_TYPE)) {
+                    // delta update for a reference that hasn't changed since the last snapshot
+                    continue;
+                }
+
+                if (version != 0 && values.containsKey(key) && versions.getInt(key) == version) {
+                    continue;
+                }
+
                 NetworkedReference<T> i = addReference(key);
-                send[0] |= i.fromNbt(comp.getCompound(key.toString()));
+                send[0] |= i.fromNbt(comp.getCompound(sid));
                 if (i.getReference().isEmpty()) {
                     removeReference(key);
+                } else {
+                    versions.put(key, version);
                 }
-            });
+            }
             dirty = send[0];
             return send[0];
         } finally {
@@ -131,22 +178,108 @@ public class NetworkedReferenceSet<T> {
         }
     }
 
+    /**
+     * Writes the full contents of this set without touching any of the state used for synchronisation.
+     */
     public synchronized NbtCompound toNbt() {
+        return writeSnapshot(false);
+    }
+
+    private NbtCompound writeSnapshot(boolean synchronize) {
         NbtCompound tag = new NbtCompound();
         NbtList ids = new NbtList();
-        this.ids.forEach(id -> {
-            String sid = id.toString();
+        int[] versions = new int[this.ids.size()];
+        int index = 0;
+        for (UUID id : this.ids) {
             NetworkedReference<?> ref = values.get(id);
             if (ref != null) {
+                String sid = id.toString();
                 ids.add(NbtString.of(sid));
-                tag.put(sid, values.get(id).toNbt());
+                if (synchronize) {
+                    versions[index++] = updateVersion(id, ref);
+                    tag.put(sid, ref.toSyncNbt());
+                } else {
+                    versions[index++] = this.versions.getInt(id);
+                    tag.put(sid, ref.toNbt());
+                }
             }
-        });
+        }
+        tag.put("keys", ids);
+        tag.putIntArray("versions", Arrays.copyOf(versions, index));
+        if (synchronize) {
+            dirty = false;
+        }
+        return tag;
+    }
+
+    /**
+     * Writes the next update to be sent to clients, either a full snapshot or a delta.
+     *
+     * @param time The current world time. Used to schedule periodic full snapshots.
+     */
+    public synchronized NbtCompound toSyncNbt(long time) {
+        long age = time - lastSnapshotTime;
+        // the tick directly after a snapshot is also a snapshot so it can't be overwritten by a delta before being sent
+        if (keysChanged || age < 2 || age >= SNAPSHOT_INTERVAL) {
+            changedSinceSnapshot.clear();
+            keysChanged = false;
+            pendingSnapshot = false;
+            lastSnapshotTime = time;
+            return writeSnapshot(true);
+        }
+
+        NbtCompound tag = new NbtCompound();
+        NbtList ids = new NbtList();
+        int[] versions = new int[this.ids.size()];
+        int index = 0;
+        for (UUID id : this.ids) {
+            NetworkedReference<T> ref = values.get(id);
+            if (ref != null) {
+                String sid = id.toString();
+                ids.add(NbtString.of(sid));
+                if (ref.isDirty()) {
+                    versions[index++] = updateVersion(id, ref);
+                    changedSinceSnapshot.put(id, ref.toSyncNbt());
+                } else {
+                    versions[index++] = this.versions.getInt(id);
+                }
+                NbtCompound body = changedSinceSnapshot.get(id);
+                if (body != null) {
+                    tag.put(sid, body);
+                }
+            }
+        }
         tag.put("keys", ids);
+        tag.putIntArray("versions", Arrays.copyOf(versions, index));
+        tag.putBoolean("delta", true);
         dirty = false;
+        pendingSnapshot = true;
         return tag;
     }
 
+    private int updateVersion(UUID id, NetworkedReference<?> ref) {
+        int version = versions.getInt(id);
+        if (version == 0 || ref.isDirty()) {
+            versions.put(id, ++version);
+        }
+        return version;
+    }
+
+    /**
+     * Makes the next update a full snapshot if the last one written was a delta,
+     * so clients that only just started tracking don't have to wait for the periodic one.
+     */
+    public synchronized void requestSnapshot() {
+        keysChanged |= pendingSnapshot;
+    }
+
+    /**
+     * Returns true when the last update written was a delta and a full snapshot is now due.
+     */
+    public synchronized boolean needsSnapshot(long time) {
+        return pendingSnapshot && (keysChanged || time - lastSnapshotTime >= SNAPSHOT_INTERVAL);
+    }
+
     public synchronized boolean isDirty() {
         return dirty || values.values().stream().anyMatch(NetworkedReference::isDirty);
     }
@@ -37,10 +37,15 @@ public class SpellNetworkedReference<T extends Spell> implements NetworkedRefere
 
     @Override
     public NbtCompound toNbt() {
-        dirty = false;
         return currentValue.toNBT();
     }
 
+    @Override
+    public NbtCompound toSyncNbt() {
+        dirty = false;
+        return toNbt();
+    }
+
     @Override
     public boolean isDirty() {
         return !owner.isClient() && (dirty || currentValue.hasDirtySpell());
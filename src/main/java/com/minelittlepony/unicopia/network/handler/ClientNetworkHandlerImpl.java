@@ -1,16 +1,19 @@
 package com.minelittlepony.unicopia.network.handler;
 
+import java.util.EnumMap;
 import java.util.Map;
 
 import com.minelittlepony.unicopia.InteractionManager;
 import com.minelittlepony.unicopia.Owned;
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.ability.data.Rot;
+import com.minelittlepony.unicopia.ability.data.tree.TreeTypeLoader;
 import com.minelittlepony.unicopia.ability.data.tree.TreeTypes;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.SpellTraits;
 import com.minelittlepony.unicopia.ability.magic.spell.trait.Trait;
 import com.minelittlepony.unicopia.client.ClientBlockDestructionManager;
 import com.minelittlepony.unicopia.client.DiscoveryToast;
+import com.minelittlepony.unicopia.client.ServerResourceCache;
 import com.minelittlepony.unicopia.client.UnicopiaClient;
 import com.minelittlepony.unicopia.client.gui.TribeSelectionScreen;
 import com.minelittlepony.unicopia.client.gui.spellbook.ClientChapters;
@@ -21,19 +24,25 @@ import com.minelittlepony.unicopia.entity.player.Pony;
 import com.minelittlepony.unicopia.network.*;
 import com.minelittlepony.unicopia.network.MsgCasterLookRequest.Reply;
 
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.Identifier;
 
 public class ClientNetworkHandlerImpl {
     private final MinecraftClient client = MinecraftClient.getInstance();
 
+    private final ServerResourceCache resourceCache = new ServerResourceCache();
+    private final Map<MsgServerResources.Section, String> appliedResources = new EnumMap<>(MsgServerResources.Section.class);
+
     public ClientNetworkHandlerImpl() {
         Channel.SERVER_SELECT_TRIBE.receiver().addPersistentListener(this::handleTribeScreen);
         Channel.SERVER_SPAWN_PROJECTILE.receiver().addPersistentListener(this::handleSpawnProjectile);
         Channel.SERVER_BLOCK_DESTRUCTION.receiver().addPersistentListener(this::handleBlockDestruction);
+        Channel.SERVER_PARTICLE_BURST.receiver().addPersistentListener(this::handleParticleBurst);
         Channel.CANCEL_PLAYER_ABILITY.receiver().addPersistentListener(this::handleCancelAbility);
         Channel.UNLOCK_TRAITS.receiver().addPersistentListener(this::handleUnlockTraits);
         Channel.SERVER_RESOURCES.receiver().addPersistentListener(this::handleServerResources);
@@ -41,6 +50,8 @@ public class ClientNetworkHandlerImpl {
         Channel.SERVER_ZAP_STAGE.receiver().addPersistentListener(this::handleZapStage);
         Channel.SERVER_PLAYER_ANIMATION_CHANGE.receiver().addPersistentListener(this::handlePlayerAnimation);
         Channel.SERVER_REQUEST_PLAYER_LOOK.receiver().addPersistentListener(this::handleCasterLookRequest);
+        // what was applied for one server says nothing about the next
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> appliedResources.clear());
     }
 
     private void handleTribeScreen(PlayerEntity sender, MsgTribeSelect packet) {
@@ -75,9 +86,11 @@ public class ClientNetworkHandlerImpl {
     private void handleBlockDestruction(PlayerEntity sender, MsgBlockDestruction packet) {
         ClientBlockDestructionManager destr = ((ClientBlockDestructionManager.Source)client.worldRenderer).getDestructionManager();
 
-        packet.destructions().forEach((i, d) -> {
-            destr.setBlockDestruction(i, d);
-        });
+        packet.forEach(destr::setBlockDestruction);
+    }
+
+    private void handleParticleBurst(PlayerEntity sender, MsgParticleBurst packet) {
+        packet.spawnParticles(client.world);
     }
 
     private void handleCancelAbility(PlayerEntity sender, MsgCancelPlayerAbility packet) {
@@ -99,12 +112,33 @@ public class ClientNetworkHandlerImpl {
         UnicopiaClient.getInstance().setZapAppleStage(packet.stage());
     }
 
-    @SuppressWarnings("unchecked")
     private void handleServerResources(PlayerEntity sender, MsgServerResources packet) {
-        SpellTraits.load(packet.traits());
-        ClientChapters.load((Map<Identifier, Chapter>)packet.chapters());
-        TreeTypes.load(packet.treeTypes());
-        PonyDiets.load(packet.diets());
+        Map<MsgServerResources.Section, String> missing = new EnumMap<>(MsgServerResources.Section.class);
+        packet.hashes().forEach((section, hash) -> {
+            byte[] data = packet.payloads().get(section);
+            if (data != null) {
+                MsgServerResources.Section.Payload payload = new MsgServerResources.Section.Payload(MsgServerResources.Section.Payload.hash(data), data);
+                resourceCache.store(section, payload);
+                applyServerResources(section, payload);
+            } else if (!hash.equals(appliedResources.get(section))) {
+                resourceCache.load(section, hash).ifPresentOrElse(payload -> applyServerResources(section, payload), () -> missing.put(section, hash));
+            }
+        });
+        if (!missing.isEmpty()) {
+            Channel.CLIENT_REQUEST_RESOURCES.sendToServer(new MsgRequestServerResources(missing));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyServerResources(MsgServerResources.Section section, MsgServerResources.Section.Payload payload) {
+        PacketByteBuf buffer = payload.toBuffer();
+        switch (section) {
+            case TRAITS -> SpellTraits.load(buffer.readMap(PacketByteBuf::readIdentifier, SpellTraits::fromPacket));
+            case CHAPTERS -> ClientChapters.load((Map<Identifier, Chapter>)InteractionManager.instance().readChapters(buffer));
+            case TREES -> TreeTypes.load(buffer.readMap(PacketByteBuf::readIdentifier, TreeTypeLoader.TreeTypeDef::new));
+            case DIETS -> PonyDiets.load(new PonyDiets(buffer));
+        }
+        appliedResources.put(section, payload.hash());
     }
 
     private void handlePlayerAnimation(PlayerEntity sender, MsgPlayerAnimationChange packet) {
@@ -34,6 +34,18 @@ public interface ParticleSource<E extends Entity> extends ParticleSpawner, Entit
         area.translate(pos).randomPoints(count, asWorld().random).forEach(particleSpawner);
     }
 
+    default void spawnParticles(PointGenerator area, int count, ParticleEffect effect) {
+        spawnParticles(getOriginVector(), area, count, effect);
+    }
+
+    /**
+     * Spawns stationary particles at random points within an area.
+     * On the server the whole burst is sent to each watching player as a single packet.
+     */
+    default void spawnParticles(Vec3d pos, PointGenerator area, int count, ParticleEffect effect) {
+        ParticleUtils.spawnParticles(asWorld(), area.translate(pos), effect, count);
+    }
+
     @Override
     default void addParticle(ParticleEffect effect, Vec3d position, Vec3d velocity) {
         ParticleUtils.spawnParticle(asWorld(), effect, position, velocity);
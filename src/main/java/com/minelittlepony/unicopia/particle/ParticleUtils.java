@@ -1,9 +1,12 @@
 package com.minelittlepony.unicopia.particle;
 
+import com.minelittlepony.unicopia.network.Channel;
+import com.minelittlepony.unicopia.network.MsgParticleBurst;
 import com.minelittlepony.unicopia.util.shape.*;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.particle.ParticleEffect;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
@@ -12,6 +15,10 @@ import net.minecraft.world.World;
  * Utility for spawning particles.
  */
 public interface ParticleUtils {
+    /**
+     * The distance from which players can see particles spawned by the server.
+     */
+    double PARTICLE_RANGE = 32;
 
     static PointGenerator getShapeFor(Entity entity) {
         final double halfDist = Math.abs(entity.getStandingEyeHeight() / 1.5);
@@ -28,6 +35,23 @@ public interface ParticleUtils {
     }
 
     static void spawnParticles(World world, PointGenerator points, ParticleEffect effect, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (world instanceof ServerWorld sw && points instanceof Shape shape && ShapeCodec.canWrite(points)) {
+            // let the client generate the points itself so a whole burst only costs one packet per player
+            Vec3d min = shape.getLowerBound();
+            Vec3d max = shape.getUpperBound();
+            Vec3d center = min.add(max).multiply(0.5);
+            double range = PARTICLE_RANGE + min.distanceTo(max) / 2;
+            MsgParticleBurst packet = new MsgParticleBurst(effect, points, count, sw.random.nextLong());
+            for (ServerPlayerEntity player : sw.getPlayers()) {
+                if (player.squaredDistanceTo(center) < range * range) {
+                    Channel.SERVER_PARTICLE_BURST.sendToPlayer(packet, player);
+                }
+            }
+            return;
+        }
         points.randomPoints(count, world.random).forEach(point -> spawnParticle(world, effect, point, Vec3d.ZERO));
     }
 
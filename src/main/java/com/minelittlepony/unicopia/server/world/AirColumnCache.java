@@ -0,0 +1,142 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+/**
+ * Remembers, for each column of blocks, the run of air last probed in it and the block at the bottom of that run,
+ * so terrain and thermal probes don't have to walk down the column block by block every time they're sampled.
+ * <p>
+ * Columns are bucketed by chunk. A column is forgotten when any block in it changes,
+ * whole chunks are forgotten when they are loaded or unloaded, and dropped once they haven't been sampled for a while.
+ * Columns over chunks that aren't loaded are never cached.
+ */
+public class AirColumnCache {
+    private static final int MAX_AGE = 600;
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final World world;
+    private final Long2ObjectMap<Columns> chunks = new Long2ObjectOpenHashMap<>();
+    private long lastSweep;
+
+    public static AirColumnCache of(World world) {
+        return ((Source)world).getAirColumnCache();
+    }
+
+    public AirColumnCache(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Gets the distance from a position down to the first non-air block beneath it and moves the position to that block.
+     * Returns zero, leaving the position unchanged, if the position itself is not air.
+     */
+    public int getLocalAltitude(BlockPos.Mutable pos) {
+        int y = pos.getY();
+        if (!world.getChunkManager().isChunkLoaded(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()))) {
+            // an empty chunk reads as air all the way down, which is only true until its data arrives
+            while (world.isAir(pos) && world.isInBuildLimit(pos)) {
+                pos.move(Direction.DOWN);
+            }
+            return y - pos.getY();
+        }
+        Columns columns = getColumns(pos);
+        int i = Columns.index(pos);
+
+        if (columns.isKnownAir(i, y)) {
+            pos.setY(columns.groundY[i]);
+            return y - pos.getY();
+        }
+
+        if (!world.isAir(pos)) {
+            return 0;
+        }
+
+        do {
+            pos.move(Direction.DOWN);
+            if (columns.isKnownAir(i, pos.getY())) {
+                columns.airTop[i] = y;
+                pos.setY(columns.groundY[i]);
+                return y - pos.getY();
+            }
+        } while (world.isAir(pos) && world.isInBuildLimit(pos));
+
+        columns.groundY[i] = pos.getY();
+        columns.airTop[i] = y;
+        columns.ground[i] = world.getBlockState(pos);
+        return y - pos.getY();
+    }
+
+    /**
+     * Gets the block state at a position, using the cached ground block of its column if the position is where that ground is.
+     */
+    public BlockState getSurfaceState(BlockPos pos) {
+        Columns columns = chunks.get(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+        if (columns != null) {
+            int i = Columns.index(pos);
+            if (columns.airTop[i] != UNKNOWN && columns.groundY[i] == pos.getY()) {
+                return columns.ground[i];
+            }
+        }
+        return world.getBlockState(pos);
+    }
+
+    public void onBlockChanged(BlockPos pos) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+        Columns columns = chunks.get(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())));
+        if (columns != null) {
+            columns.airTop[Columns.index(pos)] = UNKNOWN;
+        }
+    }
+
+    /**
+     * Forgets every column in a chunk. Called whenever a chunk's contents are replaced wholesale, such as when it is loaded or unloaded.
+     */
+    public void onChunkChanged(ChunkPos pos) {
+        chunks.remove(pos.toLong());
+    }
+
+    private Columns getColumns(BlockPos pos) {
+        long time = world.getTime();
+        if (time - lastSweep > MAX_AGE) {
+            lastSweep = time;
+            chunks.values().removeIf(columns -> time - columns.lastAccess > MAX_AGE);
+        }
+        Columns columns = chunks.computeIfAbsent(ChunkPos.toLong(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ())), p -> new Columns());
+        columns.lastAccess = time;
+        return columns;
+    }
+
+    private static final class Columns {
+        private final int[] groundY = new int[256];
+        private final int[] airTop = new int[256];
+        private final BlockState[] ground = new BlockState[256];
+        private long lastAccess;
+
+        Columns() {
+            Arrays.fill(airTop, UNKNOWN);
+        }
+
+        boolean isKnownAir(int i, int y) {
+            return airTop[i] != UNKNOWN && y > groundY[i] && y <= airTop[i];
+        }
+
+        static int index(BlockPos pos) {
+            return (pos.getX() & 15) << 4 | (pos.getZ() & 15);
+        }
+    }
+
+    public interface Source {
+        AirColumnCache getAirColumnCache();
+    }
+}
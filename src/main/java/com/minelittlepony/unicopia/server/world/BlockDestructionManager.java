@@ -1,7 +1,8 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import com.google.common.base.Suppliers;
@@ -11,7 +12,6 @@ import com.minelittlepony.unicopia.network.MsgBlockDestruction;
 import com.minelittlepony.unicopia.util.Tickable;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.BlockState;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -28,6 +28,8 @@ public class BlockDestructionManager implements Tickable {
 
     private final WorldOverlay<Destruction> chunks;
 
+    private final Map<ServerPlayerEntity, MsgBlockDestruction.Builder> pendingUpdates = new HashMap<>();
+
     public static Supplier<BlockDestructionManager> create(World world) {
         return Suppliers.memoize(() -> new BlockDestructionManager(world));
     }
@@ -47,7 +49,6 @@ public class BlockDestructionManager implements Tickable {
 
     public void setBlockDestruction(BlockPos pos, float amount) {
         chunks.getOrCreateState(pos).set(amount);
-        chunks.markDirty();
     }
 
     public float damageBlock(BlockPos pos, float amount) {
@@ -60,7 +61,7 @@ public class BlockDestructionManager implements Tickable {
     }
 
     public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newstate) {
-        if (oldState.getBlock() != newstate.getBlock()) {
+        if (oldState.getBlock() != newstate.getBlock() && chunks.getState(pos) != null) {
             setBlockDestruction(pos, UNSET_DAMAGE);
         }
     }
@@ -68,31 +69,31 @@ public class BlockDestructionManager implements Tickable {
     @Override
     public void tick() {
         chunks.tick();
+        flushUpdates();
     }
 
     private void sendUpdates(Long2ObjectMap<Destruction> destructions, List<ServerPlayerEntity> players) {
-        Long2ObjectOpenHashMap<Float> values = new Long2ObjectOpenHashMap<>();
-
-        destructions.forEach((blockPos, item) -> {
+        destructions.long2ObjectEntrySet().forEach(entry -> {
+            Destruction item = entry.getValue();
             if (item.dirty) {
                 item.dirty = false;
-                values.put(blockPos.longValue(), (Float)item.amount);
+                for (ServerPlayerEntity player : players) {
+                    pendingUpdates.computeIfAbsent(player, p -> new MsgBlockDestruction.Builder()).add(entry.getLongKey(), item.amount);
+                }
             }
         });
+    }
 
-        MsgBlockDestruction msg = new MsgBlockDestruction(values);
-
-        if (msg.toBuffer().writerIndex() > 1048576) {
-            throw new IllegalStateException("Payload may not be larger than 1048576 bytes. Here's what we were trying to send: ["
-                    + values.size() + "]\n"
-                    + Arrays.toString(values.values().stream().mapToDouble(Float::doubleValue).toArray()));
+    private void flushUpdates() {
+        if (pendingUpdates.isEmpty()) {
+            return;
         }
-
-        players.forEach(player -> {
-            if (player instanceof ServerPlayerEntity) {
-                Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player);
+        pendingUpdates.forEach((player, updates) -> {
+            if (!player.isDisconnected()) {
+                updates.build(msg -> Channel.SERVER_BLOCK_DESTRUCTION.sendToPlayer(msg, player));
             }
         });
+        pendingUpdates.clear();
     }
 
     private class Destruction implements WorldOverlay.State {
@@ -100,6 +101,11 @@ public class BlockDestructionManager implements Tickable {
         int age = DESTRUCTION_COOLDOWN;
         boolean dirty;
 
+        @Override
+        public boolean isDirty() {
+            return dirty;
+        }
+
         @Override
         public boolean tick() {
             if (age-- > 0) {
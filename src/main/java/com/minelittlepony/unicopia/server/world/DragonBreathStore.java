@@ -1,6 +1,8 @@
 package com.minelittlepony.unicopia.server.world;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.item.UItems;
@@ -14,16 +16,27 @@ import net.minecraft.world.World;
 public class DragonBreathStore extends PersistentState {
     private static final long PURGE_INTERVAL = 1000 * 60 * 60; // 1 hour
     private static final long MAX_MESSAGE_HOLD_TIME = PURGE_INTERVAL * 24; // 24 hours
+    private static final long DELIVERY_DELAY = 1000;
+    private static final int MAX_ENTRIES_PER_RECIPIENT = 64;
     private static final Identifier ID = Unicopia.id("dragon_breath");
 
     public static DragonBreathStore get(World world) {
         return WorldOverlay.getPersistableStorage(world, ID, DragonBreathStore::new, DragonBreathStore::new);
     }
 
-    private final Map<String, List<Entry>> payloads = new HashMap<>();
+    /**
+     * Mailboxes are only modified whilst holding the lock, but can be read without it to check for due mail.
+     */
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
 
     private final Object locker = new Object();
 
+    /**
+     * Number of entries in this store waiting to be delivered.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private long nextPurge;
+
     DragonBreathStore(World world, NbtCompound compound) {
         this(world);
         compound.getKeys().forEach(key -> {
@@ -40,59 +53,87 @@ public class DragonBreathStore extends PersistentState {
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
         synchronized (locker) {
-            payloads.forEach((id, uuids) -> {
+            purge(System.currentTimeMillis(), true);
+            mailboxes.forEach((recipient, mailbox) -> {
                 NbtList list = new NbtList();
-                uuids.forEach(entry -> {
-                    if (entry.created < System.currentTimeMillis() - MAX_MESSAGE_HOLD_TIME) {
-                        list.add(entry.toNBT(new NbtCompound()));
-                    }
-                });
-                compound.put(id, list);
+                mailbox.entries.forEach(entry -> list.add(entry.toNBT(new NbtCompound())));
+                compound.put(recipient, list);
             });
 
             return compound;
         }
     }
 
+    /**
+     * Checks whether this store has any undelivered mail, so callers can skip resolving recipient names while it's empty.
+     */
+    public boolean hasMailInFlight() {
+        return inFlight.get() > 0;
+    }
+
+    /**
+     * Checks whether any mail for the named recipient is ready to be delivered without taking the lock.
+     */
+    public boolean hasMailDue(String recipient) {
+        Mailbox mailbox = mailboxes.get(recipient);
+        return mailbox != null && System.currentTimeMillis() >= mailbox.earliestDue;
+    }
+
     public List<Entry> popEntries(String recipient) {
         synchronized (locker) {
-            List<Entry> entries = doPurge().get(recipient);
-            if (entries == null) {
+            long now = System.currentTimeMillis();
+            purge(now, false);
+            Mailbox mailbox = mailboxes.get(recipient);
+            if (mailbox == null || now < mailbox.earliestDue) {
                 return List.of();
             }
 
-            long now = System.currentTimeMillis();
             List<Entry> collected = new ArrayList<>();
-            entries.removeIf(entry -> {
-                if (entry.created < now - 1000) {
+            mailbox.entries.removeIf(entry -> {
+                if (entry.isDue(now)) {
                     collected.add(entry);
                     return true;
                 }
                 return false;
             });
+            inFlight.addAndGet(-collected.size());
+            if (mailbox.entries.isEmpty()) {
+                mailboxes.remove(recipient);
+            } else {
+                mailbox.updateEarliestDue();
+            }
+            if (!collected.isEmpty()) {
+                markDirty();
+            }
             return collected;
         }
     }
 
     public List<Entry> peekEntries(String recipient) {
         synchronized (locker) {
-            return doPurge().getOrDefault(recipient, List.of());
+            Mailbox mailbox = mailboxes.get(recipient);
+            return mailbox == null ? List.of() : List.copyOf(mailbox.entries);
         }
     }
 
-    public void put(String recipient, ItemStack payload) {
+    /**
+     * Queues a payload for delivery to the named recipient.
+     *
+     * @return false if the recipient's mailbox is full and the payload could not be accepted
+     */
+    public boolean put(String recipient, ItemStack payload) {
 
         if (payload.getItem() == UItems.OATS) {
             ItemStack oats = UItems.IMPORTED_OATS.getDefaultStack();
             oats.setNbt(payload.getNbt());
             oats.setCount(payload.getCount());
-            put(recipient, oats);
-            return;
+            return put(recipient, oats);
         }
 
         synchronized (locker) {
-            doPurge();
-            if (peekEntries(recipient).stream().noneMatch(i -> {
+            purge(System.currentTimeMillis(), false);
+            Mailbox mailbox = mailboxes.get(recipient);
+            if (mailbox != null && mailbox.entries.stream().anyMatch(i -> {
                if (ItemStack.canCombine(i.payload(), payload)) {
                    int combinedCount = i.payload().getCount() + payload.getCount();
                    if (combinedCount <= i.payload().getMaxCount()) {
@@ -102,24 +143,53 @@ public class DragonBreathStore extends PersistentState {
                }
                return false;
             })) {
-                put(recipient, new Entry(System.currentTimeMillis() + (long)(Math.random() * 1999), payload));
+                markDirty();
+                return true;
             }
+
+            if (mailbox != null && mailbox.entries.size() >= MAX_ENTRIES_PER_RECIPIENT) {
+                return false;
+            }
+
+            put(recipient, new Entry(System.currentTimeMillis() + (long)(Math.random() * 1999), payload));
+            markDirty();
+            return true;
         }
     }
 
     private void put(String recipient, Entry entry) {
-        payloads.computeIfAbsent(recipient, id -> new ArrayList<>()).add(entry);
+        Mailbox mailbox = mailboxes.computeIfAbsent(recipient, id -> new Mailbox());
+        mailbox.entries.add(entry);
+        mailbox.earliestDue = Math.min(mailbox.earliestDue, entry.getDueTime());
+        inFlight.incrementAndGet();
     }
 
-    private Map<String, List<Entry>> doPurge() {
-        long now = System.currentTimeMillis();
-        if (now % PURGE_INTERVAL == 0) {
-            payloads.entrySet().removeIf(entry -> {
-               entry.getValue().removeIf(e -> e.created < now - MAX_MESSAGE_HOLD_TIME);
-               return entry.getValue().isEmpty();
-            });
+    private void purge(long now, boolean force) {
+        if (!force && now < nextPurge) {
+            return;
+        }
+        nextPurge = now + PURGE_INTERVAL;
+        mailboxes.values().removeIf(mailbox -> {
+            int size = mailbox.entries.size();
+            if (mailbox.entries.removeIf(e -> e.created < now - MAX_MESSAGE_HOLD_TIME)) {
+                inFlight.addAndGet(mailbox.entries.size() - size);
+                mailbox.updateEarliestDue();
+            }
+            return mailbox.entries.isEmpty();
+        });
+    }
+
+    private static final class Mailbox {
+        private final List<Entry> entries = new ArrayList<>();
+        private volatile long earliestDue = Long.MAX_VALUE;
+
+        void updateEarliestDue() {
+            long due = Long.MAX_VALUE;
+            for (Entry entry : entries) {
+                due = Math.min(due, entry.getDueTime());
+            }
+            earliestDue = due;
         }
-        return payloads;
     }
 
     public record Entry(
@@ -130,6 +200,14 @@ public class DragonBreathStore extends PersistentState {
             this(compound.getLong("created"), ItemStack.fromNbt(compound.getCompound("payload")));
         }
 
+        long getDueTime() {
+            return created + DELIVERY_DELAY;
+        }
+
+        boolean isDue(long now) {
+            return created < now - DELIVERY_DELAY;
+        }
+
         public NbtCompound toNBT(NbtCompound compound) {
             compound.putLong("created", created);
             compound.put("payload", payload().writeNbt(new NbtCompound()));
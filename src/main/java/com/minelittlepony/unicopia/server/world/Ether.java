@@ -13,8 +13,15 @@ import com.minelittlepony.unicopia.ability.magic.spell.Spell;
 import com.minelittlepony.unicopia.ability.magic.spell.effect.SpellType;
 import com.minelittlepony.unicopia.entity.EntityReference;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.nbt.*;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
@@ -29,6 +36,12 @@ public class Ether extends PersistentState {
 
     private final Object locker = new Object();
 
+    /**
+     * Copy-on-write index of entries with a known area of effect, by spell type and then by chunk.
+     * Rebuilt by writers whenever an entry's area changes so positional lookups never have to lock.
+     */
+    private volatile Map<Identifier, Long2ObjectMap<List<Entry<?>>>> spatialIndex = Map.of();
+
     private final World world;
 
     Ether(World world, NbtCompound compound) {
@@ -49,6 +62,7 @@ public class Ether extends PersistentState {
     public NbtCompound writeNbt(NbtCompound compound) {
         synchronized (locker) {
             pruneNodes();
+            rebuildSpatialIndex();
             compound.put("endpoints", NbtSerialisable.writeMap(endpoints, Identifier::toString, entities -> {
                 return NbtSerialisable.writeMap(entities, UUID::toString, spells -> {
                     return NbtSerialisable.writeMap(spells, UUID::toString, Entry::toNBT);
@@ -88,6 +102,7 @@ public class Ether extends PersistentState {
                 }
                 return entries.isEmpty() ? null : entries;
             });
+            rebuildSpatialIndex();
         }
     }
 
@@ -127,11 +142,7 @@ public class Ether extends PersistentState {
     }
 
     public <T extends Spell> boolean anyMatch(SpellType<T> spellType, BiPredicate<T, Caster<?>> condition) {
-        return anyMatch(spellType, entry -> {
-            var spell = entry.getSpell();
-            var caster = entry.getCaster();
-            return spell != null && caster != null && condition.test(spell, caster);
-        });
+        return anyMatch(spellType, testSpellAndCaster(condition));
     }
 
     @SuppressWarnings("unchecked")
@@ -148,6 +159,98 @@ public class Ether extends PersistentState {
         return false;
     }
 
+    /**
+     * Checks whether any entry of the given type whose area of effect covers the given position matches a condition.
+     * <p>
+     * Only entries that have reported their area through {@link Entry#setArea} are considered.
+     */
+    public <T extends Spell> boolean anyMatchAt(SpellType<T> spellType, Vec3d pos, BiPredicate<T, Caster<?>> condition) {
+        return anyMatchAt(spellType, pos, testSpellAndCaster(condition));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Spell> boolean anyMatchAt(SpellType<T> spellType, Vec3d pos, Predicate<Entry<T>> condition) {
+        Long2ObjectMap<List<Entry<?>>> chunks = spatialIndex.get(spellType.getId());
+        if (chunks == null) {
+            return false;
+        }
+        List<Entry<?>> entries = chunks.get(ChunkPos.toLong(MathHelper.floor(pos.x) >> 4, MathHelper.floor(pos.z) >> 4));
+        if (entries == null) {
+            return false;
+        }
+        for (var entry : entries) {
+            if (!entry.isDead() && condition.test((Entry<T>)entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any entry of the given type whose area of effect overlaps the given region matches a condition.
+     * <p>
+     * Only entries that have reported their area through {@link Entry#setArea} are considered.
+     */
+    public <T extends Spell> boolean anyMatchWithin(SpellType<T> spellType, Box region, BiPredicate<T, Caster<?>> condition) {
+        return anyMatchWithin(spellType, region, testSpellAndCaster(condition));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Spell> boolean anyMatchWithin(SpellType<T> spellType, Box region, Predicate<Entry<T>> condition) {
+        Long2ObjectMap<List<Entry<?>>> chunks = spatialIndex.get(spellType.getId());
+        if (chunks == null) {
+            return false;
+        }
+        Set<Entry<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        int minX = MathHelper.floor(region.minX) >> 4;
+        int minZ = MathHelper.floor(region.minZ) >> 4;
+        int maxX = MathHelper.floor(region.maxX) >> 4;
+        int maxZ = MathHelper.floor(region.maxZ) >> 4;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                List<Entry<?>> entries = chunks.get(ChunkPos.toLong(x, z));
+                if (entries == null) {
+                    continue;
+                }
+                for (var entry : entries) {
+                    if (visited.add(entry) && !entry.isDead() && condition.test((Entry<T>)entry)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static <T extends Spell> Predicate<Entry<T>> testSpellAndCaster(BiPredicate<T, Caster<?>> condition) {
+        return entry -> {
+            var spell = entry.getSpell();
+            var caster = entry.getCaster();
+            return spell != null && caster != null && condition.test(spell, caster);
+        };
+    }
+
+    private void rebuildSpatialIndex() {
+        Map<Identifier, Long2ObjectMap<List<Entry<?>>>> index = new HashMap<>();
+        endpoints.forEach((typeId, entities) -> {
+            Long2ObjectMap<List<Entry<?>>> chunks = new Long2ObjectOpenHashMap<>();
+            entities.values().forEach(spells -> spells.values().forEach(entry -> {
+                entry.indexed = entry.hasArea() && !entry.removed;
+                if (entry.indexed) {
+                    for (int x = entry.minChunkX; x <= entry.maxChunkX; x++) {
+                        for (int z = entry.minChunkZ; z <= entry.maxChunkZ; z++) {
+                            chunks.computeIfAbsent(ChunkPos.toLong(x, z), c -> new ArrayList<>()).add(entry);
+                        }
+                    }
+                }
+            }));
+            if (!chunks.isEmpty()) {
+                index.put(typeId, chunks);
+            }
+        });
+        spatialIndex = index;
+    }
+
     private void pruneNodes() {
         this.endpoints.values().removeIf(entities -> {
             entities.values().removeIf(spells -> {
@@ -172,6 +275,13 @@ public class Ether extends PersistentState {
         public float yaw;
         public float radius;
 
+        private boolean hasArea;
+        private int minChunkX;
+        private int minChunkZ;
+        private int maxChunkX;
+        private int maxChunkZ;
+        private boolean indexed;
+
         private Entry(NbtElement nbt) {
             this.entity = new EntityReference<>();
             this.spell = new WeakReference<>(null);
@@ -219,6 +329,32 @@ public class Ether extends PersistentState {
             markDirty();
         }
 
+        /**
+         * Sets the spherical area affected by this entry's spell, making it available for positional queries.
+         * The spatial index is only rebuilt when the set of chunks the area covers changes.
+         */
+        public void setArea(Vec3d origin, double range) {
+            hasArea = true;
+            int minChunkX = MathHelper.floor(origin.x - range) >> 4;
+            int minChunkZ = MathHelper.floor(origin.z - range) >> 4;
+            int maxChunkX = MathHelper.floor(origin.x + range) >> 4;
+            int maxChunkZ = MathHelper.floor(origin.z + range) >> 4;
+            if (minChunkX != this.minChunkX || minChunkZ != this.minChunkZ
+                    || maxChunkX != this.maxChunkX || maxChunkZ != this.maxChunkZ || !indexed) {
+                this.minChunkX = minChunkX;
+                this.minChunkZ = minChunkZ;
+                this.maxChunkX = maxChunkX;
+                this.maxChunkZ = maxChunkZ;
+                synchronized (locker) {
+                    rebuildSpatialIndex();
+                }
+            }
+        }
+
+        boolean hasArea() {
+            return hasArea;
+        }
+
         @Nullable
         public T getSpell() {
             if (removed) {
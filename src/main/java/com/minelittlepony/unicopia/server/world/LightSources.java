@@ -1,15 +1,17 @@
 package com.minelittlepony.unicopia.server.world;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
 import com.minelittlepony.unicopia.Unicopia;
 import com.minelittlepony.unicopia.entity.DynamicLightSource;
 
-import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.world.ServerWorld;
@@ -19,16 +21,24 @@ import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
 
+/**
+ * Tracks the positions of entities that emit light.
+ * <p>
+ * Sources are indexed by the block they occupy and the chunk they are in so the
+ * light engine can query individual positions without visiting every source in the world.
+ * Entries are updated incrementally by {@link DynamicLightSource.LightEmitter} as its entity moves.
+ */
 public class LightSources extends PersistentState {
     private static final Identifier ID = Unicopia.id("light_sources");
 
-    private final Set<UUID> lightSourceIds = new HashSet<>();
-    private final AbstractObject2IntMap<UUID> lightSourceClientIds = new Object2IntOpenHashMap<>();
+    private final Map<UUID, LightSource> lightSources = new HashMap<>();
+    private final Long2IntMap luminanceByBlock = new Long2IntOpenHashMap();
+    private final Long2ObjectMap<Map<UUID, LightSource>> lightSourcesByChunk = new Long2ObjectOpenHashMap<>();
     private volatile boolean empty = true;
 
     private final World world;
 
-    private final Function<UUID, Entity> entitySupplier;
+    private final Function<LightSource, Entity> entitySupplier;
 
     public static LightSources get(World world) {
         return WorldOverlay.getPersistableStorage(world, ID, LightSources::new, LightSources::new);
@@ -40,7 +50,7 @@ public class LightSources extends PersistentState {
 
     LightSources(World world) {
         this.world = world;
-        entitySupplier = world instanceof ServerWorld s ? s::getEntity : id -> world.getEntityById(lightSourceClientIds.getInt(id));
+        entitySupplier = world instanceof ServerWorld s ? source -> s.getEntity(source.id) : source -> world.getEntityById(source.clientId);
     }
 
     @Override
@@ -49,9 +59,23 @@ public class LightSources extends PersistentState {
     }
 
     public void addLightSource(Entity entity) {
-        synchronized (lightSourceIds) {
-            lightSourceIds.add(entity.getUuid());
-            lightSourceClientIds.put(entity.getUuid(), entity.getId());
+        int level = entity instanceof DynamicLightSource source ? source.getLightLevel() : 0;
+        if (level <= 0) {
+            removeLightSource(entity);
+            return;
+        }
+        long pos = entity.getBlockPos().asLong();
+        synchronized (lightSources) {
+            LightSource source = lightSources.computeIfAbsent(entity.getUuid(), id -> new LightSource(id, entity.getId()));
+            if (source.indexed) {
+                if (source.pos == pos && source.level == level) {
+                    return;
+                }
+                unindex(source);
+            }
+            source.pos = pos;
+            source.level = level;
+            index(source);
             empty = false;
         }
     }
@@ -60,10 +84,12 @@ public class LightSources extends PersistentState {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.remove(entity.getUuid());
-            lightSourceClientIds.removeInt(entity.getUuid());
-            empty = lightSourceIds.isEmpty();
+        synchronized (lightSources) {
+            LightSource source = lightSources.remove(entity.getUuid());
+            if (source != null) {
+                unindex(source);
+            }
+            empty = lightSources.isEmpty();
         }
     }
 
@@ -71,48 +97,102 @@ public class LightSources extends PersistentState {
         if (empty) {
             return 0;
         }
-        final int[] result = {0};
-        forEachLightSource((pos, level) -> {
-           if (pos.asLong() == blockPos) {
-               result[0] += level;
-           }
-        });
-        return result[0];
+        synchronized (lightSources) {
+            return luminanceByBlock.get(blockPos);
+        }
     }
 
     public void forEachLightSource(ChunkPos chunkPos, LightSourceConsumer consumer) {
-        forEachLightSource((pos, level) -> {
-            if (checkPos(chunkPos, pos)) {
-                consumer.accept(pos, level);
+        if (empty) {
+            return;
+        }
+        synchronized (lightSources) {
+            Map<UUID, LightSource> sources = lightSourcesByChunk.get(chunkPos.toLong());
+            if (sources == null) {
+                return;
+            }
+            sources.values().removeIf(source -> {
+                if (entitySupplier.apply(source) instanceof DynamicLightSource) {
+                    BlockPos pos = BlockPos.fromLong(source.pos);
+                    if (world.isInBuildLimit(pos)) {
+                        consumer.accept(pos, source.level);
+                    }
+                    return false;
+                }
+                lightSources.remove(source.id);
+                removeLuminance(source);
+                return true;
+            });
+            if (sources.isEmpty()) {
+                lightSourcesByChunk.remove(chunkPos.toLong());
             }
-        });
+            empty = lightSources.isEmpty();
+        }
     }
 
     public void forEachLightSource(LightSourceConsumer consumer) {
         if (empty) {
             return;
         }
-        synchronized (lightSourceIds) {
-            lightSourceIds.removeIf(id -> {
-                Entity entity = entitySupplier.apply(id);
-                if (entity instanceof DynamicLightSource source) {
-                    consumer.accept(entity.getBlockPos(), source.getLightLevel());
+        synchronized (lightSources) {
+            lightSources.values().removeIf(source -> {
+                if (entitySupplier.apply(source) instanceof DynamicLightSource) {
+                    consumer.accept(BlockPos.fromLong(source.pos), source.level);
                     return false;
                 }
+                unindex(source);
                 return true;
             });
-            empty = lightSourceIds.isEmpty();
+            empty = lightSources.isEmpty();
+        }
+    }
+
+    private void index(LightSource source) {
+        source.indexed = true;
+        luminanceByBlock.mergeInt(source.pos, source.level, Integer::sum);
+        lightSourcesByChunk.computeIfAbsent(source.getChunkPos(), c -> new HashMap<>()).put(source.id, source);
+    }
+
+    private void unindex(LightSource source) {
+        if (!source.indexed) {
+            return;
+        }
+        removeLuminance(source);
+        long chunkPos = source.getChunkPos();
+        Map<UUID, LightSource> sources = lightSourcesByChunk.get(chunkPos);
+        if (sources != null) {
+            sources.remove(source.id);
+            if (sources.isEmpty()) {
+                lightSourcesByChunk.remove(chunkPos);
+            }
         }
     }
 
-    private boolean checkPos(ChunkPos chunkPos, BlockPos pos) {
-        return world.isInBuildLimit(pos)
-            && checkPos(pos.getX(), chunkPos.getStartX(), chunkPos.getEndX())
-            && checkPos(pos.getZ(), chunkPos.getStartZ(), chunkPos.getEndZ());
+    private void removeLuminance(LightSource source) {
+        source.indexed = false;
+        int remaining = luminanceByBlock.get(source.pos) - source.level;
+        if (remaining > 0) {
+            luminanceByBlock.put(source.pos, remaining);
+        } else {
+            luminanceByBlock.remove(source.pos);
+        }
     }
 
-    private boolean checkPos(int p, int min, int max) {
-        return p >= min && p <= max;
+    private static final class LightSource {
+        private final UUID id;
+        private final int clientId;
+        private long pos;
+        private int level;
+        private boolean indexed;
+
+        LightSource(UUID id, int clientId) {
+            this.id = id;
+            this.clientId = clientId;
+        }
+
+        long getChunkPos() {
+            return ChunkPos.toLong(BlockPos.unpackLongX(pos) >> 4, BlockPos.unpackLongZ(pos) >> 4);
+        }
     }
 
     public interface LightSourceConsumer {
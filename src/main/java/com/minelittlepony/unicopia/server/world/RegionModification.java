@@ -0,0 +1,192 @@
+package com.minelittlepony.unicopia.server.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.minelittlepony.unicopia.ability.magic.Caster;
+import com.minelittlepony.unicopia.block.state.BlockStateConverter;
+import com.minelittlepony.unicopia.util.shape.BlockOffsets;
+import com.minelittlepony.unicopia.util.shape.Shape;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteMap;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.GameRules;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Applies changes to the blocks of a shape around a caster.
+ * <p>
+ * The shape's block offsets are cached, blocks are read directly from their chunk sections,
+ * empty or unloaded sections are skipped, and arcane protection is checked once per section
+ * (falling back to per-block checks only for sections a protection spell overlaps).
+ * Neighbour updates for every changed block are deferred until the whole region has been processed.
+ */
+public final class RegionModification {
+    private static final byte UNCHECKED = -1;
+    private static final byte SKIP = 0;
+    private static final byte UNPROTECTED = 1;
+    private static final byte PROTECTED = 2;
+
+    private final World world;
+    private final boolean batched;
+    private final LongList changes = new LongArrayList();
+    private final List<Block> replacedBlocks = new ArrayList<>();
+
+    /**
+     * Creates a modification that applies block changes and their neighbour updates immediately.
+     */
+    public static RegionModification immediate(World world) {
+        return new RegionModification(world, false);
+    }
+
+    /**
+     * Visits every non-air block of a shape, centered on the caster's origin, that the caster is allowed to modify.
+     *
+     * @param caster The caster performing the modification
+     * @param shape  The untranslated shape of the region
+     * @param mod    The checks the caster must pass to modify each block
+     * @param action Action to apply to each block. Returns true if the block was affected.
+     *
+     * @return The number of blocks affected
+     */
+    public static int apply(Caster<?> caster, Shape shape, ModificationType mod, Action action) {
+        World world = caster.asWorld();
+
+        if (mod.checkPhysical() && !(caster.getMaster() instanceof PlayerEntity) && !world.getGameRules().getBoolean(GameRules.DO_MOB_GRIEFING)) {
+            return 0;
+        }
+
+        RegionModification region = new RegionModification(world, true);
+        Long2ByteMap sections = new Long2ByteOpenHashMap();
+        sections.defaultReturnValue(UNCHECKED);
+        int[] affected = {0};
+
+        BlockOffsets.of(shape).forEach(caster.getOrigin(), pos -> {
+            if (world.isOutOfHeightLimit(pos)) {
+                return;
+            }
+
+            long sectionPos = ChunkSectionPos.toLong(pos);
+            byte sectionState = sections.get(sectionPos);
+            if (sectionState == UNCHECKED) {
+                sections.put(sectionPos, sectionState = region.checkSection(caster, pos, mod));
+            }
+            if (sectionState == SKIP) {
+                return;
+            }
+
+            WorldChunk chunk = world.getWorldChunk(pos);
+            BlockState state = chunk.getSectionArray()[chunk.getSectionIndex(pos.getY())].getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+
+            if (state.isAir() || !region.canModify(caster, pos, state, mod, sectionState)) {
+                return;
+            }
+
+            if (action.apply(region, pos.toImmutable(), state)) {
+                affected[0]++;
+            }
+        });
+
+        region.flush();
+        return affected[0];
+    }
+
+    private RegionModification(World world, boolean batched) {
+        this.world = world;
+        this.batched = batched;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Sets a block state as part of this modification.
+     * When batched, neighbours are only notified once the whole region has been processed.
+     */
+    public void setBlockState(BlockPos pos, BlockState state) {
+        if (!batched) {
+            world.setBlockState(pos, state);
+            return;
+        }
+        // neighbours are told about the block that was there before, just like an unbatched change would
+        Block replaced = world.getBlockState(pos).getBlock();
+        if (world.setBlockState(pos, state, Block.NOTIFY_LISTENERS)) {
+            changes.add(pos.asLong());
+            replacedBlocks.add(replaced);
+        }
+    }
+
+    /**
+     * Converts a block whose current state is already known.
+     */
+    public boolean convert(BlockStateConverter converter, BlockPos pos, BlockState state) {
+        return converter.convert(world, pos, state);
+    }
+
+    private byte checkSection(Caster<?> caster, BlockPos pos, ModificationType mod) {
+        int chunkX = ChunkSectionPos.getSectionCoord(pos.getX());
+        int chunkZ = ChunkSectionPos.getSectionCoord(pos.getZ());
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+            return SKIP;
+        }
+
+        WorldChunk chunk = world.getChunk(chunkX, chunkZ);
+        ChunkSection section = chunk.getSectionArray()[chunk.getSectionIndex(pos.getY())];
+        if (section.isEmpty()) {
+            return SKIP;
+        }
+
+        if (!mod.checkMagical()) {
+            return UNPROTECTED;
+        }
+
+        int minX = ChunkSectionPos.getBlockCoord(chunkX);
+        int minY = ChunkSectionPos.getBlockCoord(ChunkSectionPos.getSectionCoord(pos.getY()));
+        int minZ = ChunkSectionPos.getBlockCoord(chunkZ);
+        return caster.canCastWithin(new Box(minX, minY, minZ, minX + 16, minY + 16, minZ + 16)) ? UNPROTECTED : PROTECTED;
+    }
+
+    private boolean canModify(Caster<?> caster, BlockPos pos, BlockState state, ModificationType mod, byte sectionState) {
+        if (mod.checkPhysical()) {
+            if (state.getHardness(world, pos) < 0) {
+                return false;
+            }
+
+            if (caster.getMaster() instanceof PlayerEntity player && !world.canPlayerModifyAt(player, pos)) {
+                return false;
+            }
+        }
+
+        return sectionState != PROTECTED || caster.canCastAt(Vec3d.ofCenter(pos));
+    }
+
+    private void flush() {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = 0; i < changes.size(); i++) {
+            pos.set(changes.getLong(i));
+            world.updateNeighbors(pos, replacedBlocks.get(i));
+            BlockState state = world.getBlockState(pos);
+            if (!world.isClient && state.hasComparatorOutput()) {
+                world.updateComparators(pos, state.getBlock());
+            }
+        }
+        changes.clear();
+        replacedBlocks.clear();
+    }
+
+    public interface Action {
+        boolean apply(RegionModification region, BlockPos pos, BlockState state);
+    }
+}
@@ -25,16 +25,7 @@ import net.minecraft.world.World;
 public class WeatherConditions extends PersistentState implements Tickable {
     public static final Plane HEIGHT_MAP_FIELD = (world, pos) -> world.getTopY(Heightmap.Type.WORLD_SURFACE_WG, pos.getX(), pos.getZ());
     public static final Plane THERMAL_FIELD = (world, pos) -> (float)getUpdraft(pos, world);
-    public static final Plane LOCAL_ALTITUDE_FIELD = (world, pos) -> {
-        if (!world.isAir(pos)) {
-            return 0;
-        }
-        int y = pos.getY();
-        do {
-            pos.move(Direction.DOWN);
-        } while (world.isAir(pos) && world.isInBuildLimit(pos));
-        return y - pos.getY();
-    };
+    public static final Plane LOCAL_ALTITUDE_FIELD = (world, pos) -> AirColumnCache.of(world).getLocalAltitude(pos);
 
     public static final double FIRE_UPDRAFT = 0.13;
     public static final double SAND_UPDRAFT = 0.03;
@@ -182,7 +173,7 @@ public class WeatherConditions extends PersistentState implements Tickable {
     }
 
     private static double getMaterialSurfaceTemperature(BlockPos.Mutable pos, World world) {
-        BlockState state = world.getBlockState(pos);
+        BlockState state = AirColumnCache.of(world).getSurfaceState(pos);
 
         if (state.isAir()) {
             return VOID_UPDRAFT;
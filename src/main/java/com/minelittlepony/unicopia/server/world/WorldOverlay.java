@@ -11,24 +11,52 @@ import org.jetbrains.annotations.Nullable;
 import com.minelittlepony.unicopia.util.NbtSerialisable;
 import com.minelittlepony.unicopia.util.Tickable;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.datafixer.DataFixTypes;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.server.world.ThreadedAnvilChunkStorage;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
-
+import net.minecraft.world.chunk.ReadOnlyChunk;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Sparse per-block state layered over a world.
+ * <p>
+ * States are bucketed by chunk section, and a section (or chunk) only exists while it holds at least one state,
+ * so reads never allocate and ticking only visits sections that have something in them.
+ * <p>
+ * On the server, states are saved with the chunk they belong to rather than in one world-wide file.
+ * The overlay's own persistent state only carries data from the older {@code chunks} format
+ * until each of those chunks has been loaded and saved again.
+ */
 public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState implements Tickable {
+    private static final String CHUNK_DATA_KEY = "unicopia_overlays";
+    /**
+     * Cleared when each world unloads. Overlays hold their world, so a weak map would never let go of them.
+     */
+    private static final Map<World, ChunkStorage> STORAGE = new HashMap<>();
 
     private final World world;
 
     private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    /**
+     * Chunks whose states were loaded from the legacy format and have not yet been written to their chunk.
+     */
+    private final LongSet legacyChunks = new LongOpenHashSet();
 
     private final Object locker = new Object();
 
@@ -56,11 +84,89 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
     }
 
     public static <T extends State> WorldOverlay<T> getOverlay(World world, Identifier id, Function<World, WorldOverlay<T>> overlayFactory) {
-        return getPersistableStorage(world, id, (w, tag) -> {
-            WorldOverlay<T> overlay = overlayFactory.apply(w);
-            overlay.readNbt(tag);
-            return overlay;
+        WorldOverlay<T> overlay = getPersistableStorage(world, id, (w, tag) -> {
+            WorldOverlay<T> o = overlayFactory.apply(w);
+            o.readNbt(tag);
+            return o;
         }, overlayFactory);
+        if (world instanceof ServerWorld) {
+            synchronized (STORAGE) {
+                STORAGE.computeIfAbsent(world, w -> new ChunkStorage()).claim(id.toString(), overlay);
+            }
+        }
+        return overlay;
+    }
+
+    /**
+     * Called when a chunk is being written to disk to save the states of every overlay within it.
+     */
+    public static void onChunkWritten(ServerWorld world, net.minecraft.world.chunk.Chunk chunk, NbtCompound chunkNbt) {
+        NbtCompound data = new NbtCompound();
+        synchronized (STORAGE) {
+            ChunkStorage storage = STORAGE.get(world);
+            if (storage != null) {
+                data = storage.write(chunk.getPos().toLong());
+            }
+        }
+        @Nullable
+        NbtCompound pending = PendingChunkData.of(chunk).getPendingOverlayData();
+        if (pending != null) {
+            // read from disk but not loaded into the world yet, so this is still the newest data for those overlays
+            data.copyFrom(pending);
+        }
+        if (!data.isEmpty()) {
+            chunkNbt.put(CHUNK_DATA_KEY, data);
+        }
+    }
+
+    /**
+     * Called when a chunk is read from disk. Chunks are read off the server thread, so their overlay data is
+     * only held by the chunk until it has been loaded into the world.
+     */
+    public static void onChunkRead(net.minecraft.world.chunk.Chunk chunk, NbtCompound chunkNbt) {
+        if (chunkNbt.contains(CHUNK_DATA_KEY, NbtElement.COMPOUND_TYPE)) {
+            PendingChunkData.of(chunk).setPendingOverlayData(chunkNbt.getCompound(CHUNK_DATA_KEY));
+        }
+    }
+
+    /**
+     * Called when a chunk is loaded into the world to restore the states of every overlay within it.
+     * Chunks still holding legacy overlay data are flagged to be saved again so that data is migrated into the chunk.
+     */
+    public static void onChunkLoaded(ServerWorld world, WorldChunk chunk) {
+        PendingChunkData holder = PendingChunkData.of(chunk);
+        @Nullable
+        NbtCompound pending = holder.getPendingOverlayData();
+        holder.setPendingOverlayData(null);
+        long pos = chunk.getPos().toLong();
+
+        synchronized (STORAGE) {
+            ChunkStorage storage = pending == null ? STORAGE.get(world) : STORAGE.computeIfAbsent(world, w -> new ChunkStorage());
+            if (storage == null) {
+                return;
+            }
+            if (pending != null) {
+                storage.read(pos, pending);
+            }
+            if (storage.hasLegacyData(pos)) {
+                chunk.setNeedsSaving(true);
+            }
+        }
+    }
+
+    public static void onChunkUnloaded(ServerWorld world, WorldChunk chunk) {
+        synchronized (STORAGE) {
+            ChunkStorage storage = STORAGE.get(world);
+            if (storage != null) {
+                storage.unload(chunk.getPos().toLong());
+            }
+        }
+    }
+
+    public static void onWorldUnloaded(ServerWorld world) {
+        synchronized (STORAGE) {
+            STORAGE.remove(world);
+        }
     }
 
     WorldOverlay(World world, Supplier<T> factory, @Nullable BiConsumer<Long2ObjectMap<T>, List<ServerPlayerEntity>> updateSender) {
@@ -71,91 +177,183 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
 
     @Override
     public NbtCompound writeNbt(NbtCompound compound) {
-        NbtCompound destructions = new NbtCompound();
-        this.chunks.forEach((id, chunk) -> {
-            destructions.put(id.toString(), chunk.toNBT());
-        });
-        compound.put("chunks", destructions);
+        synchronized (locker) {
+            if (!legacyChunks.isEmpty()) {
+                NbtCompound destructions = new NbtCompound();
+                legacyChunks.forEach(id -> {
+                    Chunk chunk = chunks.get(id);
+                    if (chunk != null) {
+                        destructions.put(String.valueOf(id), chunk.toLegacyNbt());
+                    }
+                });
+                compound.put("chunks", destructions);
+            }
+        }
         return compound;
     }
 
     public void readNbt(NbtCompound compound) {
-        NbtCompound d = compound.getCompound("chunks");
-        d.getKeys().forEach(id -> {
-            chunks.computeIfAbsent(Long.valueOf(id), Chunk::new).fromNBT(d.getCompound(id));
-        });
+        synchronized (locker) {
+            NbtCompound d = compound.getCompound("chunks");
+            d.getKeys().forEach(id -> {
+                long pos = Long.parseLong(id);
+                NbtCompound states = d.getCompound(id).getCompound("states");
+                states.getKeys().forEach(key -> {
+                    getOrCreateSection(BlockPos.fromLong(Long.parseLong(key))).readState(Long.parseLong(key), states.getCompound(key));
+                });
+                if (chunks.containsKey(pos)) {
+                    legacyChunks.add(pos);
+                }
+            });
+        }
     }
 
     @Nullable
     public T getState(BlockPos pos) {
-        return getChunk(pos).getState(pos);
+        Chunk chunk = chunks.get(ChunkPos.toLong(pos));
+        if (chunk == null) {
+            return null;
+        }
+        Section section = chunk.sections.get(ChunkSectionPos.getSectionCoord(pos.getY()));
+        return section == null ? null : section.states.get(pos.asLong());
     }
 
     public T getOrCreateState(BlockPos pos) {
         synchronized (locker) {
-            return getChunk(pos).getOrCreateState(pos);
+            markChunkDirty(pos);
+            return getOrCreateSection(pos).states.computeIfAbsent(pos.asLong(), l -> factory.get());
         }
     }
 
-    private Chunk getChunk(BlockPos pos) {
-        return chunks.computeIfAbsent(new ChunkPos(pos).toLong(), Chunk::new);
-    }
-
     public void setState(BlockPos pos, @Nullable T state) {
         synchronized (locker) {
-            getChunk(pos).setState(pos, state);
+            if (state != null) {
+                getOrCreateSection(pos).states.put(pos.asLong(), state);
+            } else {
+                long chunkPos = ChunkPos.toLong(pos);
+                Chunk chunk = chunks.get(chunkPos);
+                if (chunk != null && chunk.remove(pos) && chunk.sections.isEmpty()) {
+                    chunks.remove(chunkPos);
+                }
+            }
+            markChunkDirty(pos);
+        }
+    }
+
+    private Section getOrCreateSection(BlockPos pos) {
+        return chunks.computeIfAbsent(ChunkPos.toLong(pos), Chunk::new)
+                .sections.computeIfAbsent(ChunkSectionPos.getSectionCoord(pos.getY()), y -> new Section());
+    }
+
+    private void markChunkDirty(BlockPos pos) {
+        markChunkDirty(ChunkPos.toLong(pos));
+    }
+
+    private void markChunkDirty(long pos) {
+        if (legacyChunks.contains(pos)) {
             markDirty();
         }
+        if (world instanceof ServerWorld serverWorld) {
+            WorldChunk chunk = serverWorld.getChunkManager().getWorldChunk(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos));
+            if (chunk != null) {
+                chunk.setNeedsSaving(true);
+            }
+        }
     }
 
     @Override
     public void tick() {
         synchronized (locker) {
-            chunks.long2ObjectEntrySet().removeIf(entry -> entry.getValue().tick());
+            chunks.long2ObjectEntrySet().removeIf(entry -> {
+                Chunk chunk = entry.getValue();
+                boolean empty = chunk.tick();
+                // expired states have to be written out too, otherwise the copies saved before they expired come back on reload
+                if (chunk.removedStates) {
+                    markChunkDirty(entry.getLongKey());
+                }
+                return empty;
+            });
 
-            if (world instanceof ServerWorld) {
-                chunks.forEach((chunkPos, chunk) -> chunk.sendUpdates((ServerWorld)world));
+            if (updateSender != null && world instanceof ServerWorld serverWorld) {
+                chunks.values().forEach(chunk -> chunk.sendUpdates(serverWorld));
             }
         }
     }
 
-    private class Chunk implements NbtSerialisable {
-        private final Long2ObjectMap<T> states = new Long2ObjectOpenHashMap<>();
+    @Nullable
+    private NbtCompound writeChunk(long pos) {
+        synchronized (locker) {
+            if (legacyChunks.remove(pos)) {
+                markDirty();
+            }
+            Chunk chunk = chunks.get(pos);
+            return chunk == null ? null : chunk.toNBT();
+        }
+    }
 
-        private final long pos;
+    private void readChunk(long pos, NbtCompound compound) {
+        synchronized (locker) {
+            legacyChunks.remove(pos);
+            Chunk chunk = new Chunk(pos);
+            chunk.fromNBT(compound);
+            if (chunk.sections.isEmpty()) {
+                chunks.remove(pos);
+            } else {
+                chunks.put(pos, chunk);
+            }
+        }
+    }
 
-        Chunk(long pos) {
-            this.pos = pos;
+    private boolean hasLegacyData(long pos) {
+        synchronized (locker) {
+            return legacyChunks.contains(pos);
         }
+    }
 
-        @Nullable
-        public T getState(BlockPos pos) {
-            return states.get(pos.asLong());
+    private void unloadChunk(long pos) {
+        synchronized (locker) {
+            if (!legacyChunks.contains(pos)) {
+                chunks.remove(pos);
+            }
         }
+    }
+
+    private class Chunk implements NbtSerialisable {
+        private final Int2ObjectMap<Section> sections = new Int2ObjectOpenHashMap<>();
+
+        private final long pos;
+
+        private boolean removedStates;
 
-        public T getOrCreateState(BlockPos pos) {
-            return states.computeIfAbsent(pos.asLong(), l -> factory.get());
+        Chunk(long pos) {
+            this.pos = pos;
         }
 
-        public void setState(BlockPos pos, @Nullable T state) {
-            if (state == null) {
-                states.remove(pos.asLong());
-            } else {
-                states.put(pos.asLong(), state);
+        boolean remove(BlockPos pos) {
+            int y = ChunkSectionPos.getSectionCoord(pos.getY());
+            Section section = sections.get(y);
+            if (section == null || section.states.remove(pos.asLong()) == null) {
+                return false;
             }
+            if (section.states.isEmpty()) {
+                sections.remove(y);
+            }
+            return true;
         }
 
         boolean tick() {
-            states.long2ObjectEntrySet().removeIf(e -> e.getValue().tick());
-            return states.isEmpty();
+            removedStates = false;
+            sections.int2ObjectEntrySet().removeIf(entry -> {
+                Section section = entry.getValue();
+                boolean empty = section.tick();
+                removedStates |= section.removedStates;
+                return empty;
+            });
+            return sections.isEmpty();
         }
 
         void sendUpdates(ServerWorld world) {
-            if (updateSender == null) {
-                return;
-            }
-
-            if (!world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
+            if (!isDirty() || !world.getChunkManager().isChunkLoaded(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos))) {
                 return;
             }
 
@@ -164,31 +362,191 @@ public class WorldOverlay<T extends WorldOverlay.State> extends PersistentState
             List<ServerPlayerEntity> players = storage.getPlayersWatchingChunk(new ChunkPos(pos), false);
 
             if (!players.isEmpty()) {
-                updateSender.accept(states, players);
+                sections.values().forEach(section -> {
+                    if (section.dirty) {
+                        updateSender.accept(section.states, players);
+                    }
+                });
             }
         }
 
-        @Override
-        public void toNBT(NbtCompound compound) {
+        private boolean isDirty() {
+            for (Section section : sections.values()) {
+                if (section.dirty) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        NbtCompound toLegacyNbt() {
             NbtCompound states = new NbtCompound();
-            this.states.forEach((id, state) -> {
-                states.put(id.toString(), state.toNBT());
+            sections.values().forEach(section -> {
+                section.states.forEach((id, state) -> {
+                    states.put(id.toString(), state.toNBT());
+                });
             });
+            NbtCompound compound = new NbtCompound();
             compound.put("states", states);
+            return compound;
+        }
+
+        @Override
+        public void toNBT(NbtCompound compound) {
+            NbtList sections = new NbtList();
+            this.sections.forEach((y, section) -> {
+                NbtCompound sectionNbt = new NbtCompound();
+                sectionNbt.putInt("y", y);
+                sectionNbt.put("states", section.toNBT());
+                sections.add(sectionNbt);
+            });
+            compound.put("sections", sections);
         }
 
         @Override
         public void fromNBT(NbtCompound compound) {
-            NbtCompound d = compound.getCompound("states");
-            chunks.clear();
-            d.getKeys().forEach(id -> {
-                states.computeIfAbsent(Long.valueOf(id), i -> factory.get()).fromNBT(d.getCompound(id));
+            sections.clear();
+            int x = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedX(pos));
+            int z = ChunkSectionPos.getBlockCoord(ChunkPos.getPackedZ(pos));
+            compound.getList("sections", NbtElement.COMPOUND_TYPE).forEach(element -> {
+                NbtCompound sectionNbt = (NbtCompound)element;
+                int y = sectionNbt.getInt("y");
+                Section section = new Section();
+                section.fromNBT(x, ChunkSectionPos.getBlockCoord(y), z, sectionNbt.getList("states", NbtElement.COMPOUND_TYPE));
+                if (!section.states.isEmpty()) {
+                    sections.put(y, section);
+                }
+            });
+        }
+    }
+
+    private class Section {
+        private final Long2ObjectMap<T> states = new Long2ObjectOpenHashMap<>();
+
+        private boolean dirty;
+        private boolean removedStates;
+
+        boolean tick() {
+            dirty = false;
+            removedStates = false;
+            states.long2ObjectEntrySet().removeIf(e -> {
+                if (e.getValue().tick()) {
+                    removedStates = true;
+                    return true;
+                }
+                dirty |= e.getValue().isDirty();
+                return false;
+            });
+            return states.isEmpty();
+        }
+
+        void readState(long pos, NbtCompound compound) {
+            states.computeIfAbsent(pos, i -> factory.get()).fromNBT(compound);
+        }
+
+        NbtList toNBT() {
+            NbtList list = new NbtList();
+            BlockPos.Mutable mutable = new BlockPos.Mutable();
+            states.forEach((id, state) -> {
+                NbtCompound compound = new NbtCompound();
+                compound.putShort("pos", ChunkSectionPos.packLocal(mutable.set(id)));
+                compound.put("state", state.toNBT());
+                list.add(compound);
+            });
+            return list;
+        }
+
+        void fromNBT(int x, int y, int z, NbtList list) {
+            list.forEach(element -> {
+                NbtCompound compound = (NbtCompound)element;
+                short local = compound.getShort("pos");
+                readState(BlockPos.asLong(
+                        x + ChunkSectionPos.unpackLocalX(local),
+                        y + ChunkSectionPos.unpackLocalY(local),
+                        z + ChunkSectionPos.unpackLocalZ(local)
+                ), compound.getCompound("state"));
             });
         }
     }
 
+    /**
+     * The overlays of a single server world, along with any chunk data read before its overlay was created.
+     */
+    private static final class ChunkStorage {
+        private final Map<String, WorldOverlay<?>> overlays = new HashMap<>();
+        private final Map<String, Long2ObjectMap<NbtCompound>> unclaimed = new HashMap<>();
+
+        void claim(String id, WorldOverlay<?> overlay) {
+            if (overlays.putIfAbsent(id, overlay) == null) {
+                Long2ObjectMap<NbtCompound> pending = unclaimed.remove(id);
+                if (pending != null) {
+                    pending.forEach(overlay::readChunk);
+                }
+            }
+        }
+
+        NbtCompound write(long pos) {
+            NbtCompound compound = new NbtCompound();
+            overlays.forEach((id, overlay) -> {
+                NbtCompound data = overlay.writeChunk(pos);
+                if (data != null) {
+                    compound.put(id, data);
+                }
+            });
+            unclaimed.forEach((id, pending) -> {
+                NbtCompound data = pending.get(pos);
+                if (data != null) {
+                    compound.put(id, data);
+                }
+            });
+            return compound;
+        }
+
+        void read(long pos, NbtCompound compound) {
+            compound.getKeys().forEach(id -> {
+                WorldOverlay<?> overlay = overlays.get(id);
+                if (overlay != null) {
+                    overlay.readChunk(pos, compound.getCompound(id));
+                } else {
+                    unclaimed.computeIfAbsent(id, i -> new Long2ObjectOpenHashMap<>()).put(pos, compound.getCompound(id));
+                }
+            });
+        }
+
+        boolean hasLegacyData(long pos) {
+            return overlays.values().stream().anyMatch(overlay -> overlay.hasLegacyData(pos));
+        }
+
+        void unload(long pos) {
+            overlays.values().forEach(overlay -> overlay.unloadChunk(pos));
+            unclaimed.values().forEach(pending -> pending.remove(pos));
+        }
+    }
+
+    /**
+     * Overlay data read with a chunk that hasn't been loaded into its world yet.
+     */
+    public interface PendingChunkData {
+        @Nullable
+        NbtCompound getPendingOverlayData();
+
+        void setPendingOverlayData(@Nullable NbtCompound data);
+
+        static PendingChunkData of(net.minecraft.world.chunk.Chunk chunk) {
+            return (PendingChunkData)(chunk instanceof ReadOnlyChunk readOnly ? readOnly.getWrappedChunk() : chunk);
+        }
+    }
+
     public interface State extends NbtSerialisable {
         boolean tick();
+
+        /**
+         * Whether this state has changes that still need to be sent to clients.
+         * Only sections holding dirty states are passed on to the overlay's update sender.
+         */
+        default boolean isDirty() {
+            return true;
+        }
     }
 
     record ClientInstance<T extends PersistentState>(WeakReference<World> world, T instance) {
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 
 import com.minelittlepony.unicopia.USounds;
 import com.minelittlepony.unicopia.Unicopia;
+import com.minelittlepony.unicopia.block.zap.ZapStagedBlock;
 import com.minelittlepony.unicopia.network.Channel;
 import com.minelittlepony.unicopia.network.MsgZapAppleStage;
 import com.minelittlepony.unicopia.particle.LightningBoltParticleEffect;
@@ -14,17 +15,28 @@ import com.minelittlepony.unicopia.particle.ParticleUtils;
 import com.minelittlepony.unicopia.util.MeteorlogicalUtil;
 import com.minelittlepony.unicopia.util.Tickable;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LightningEntity;
 import net.minecraft.nbt.*;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.StringIdentifiable;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 import net.minecraft.world.dimension.DimensionType;
 import net.minecraft.world.event.GameEvent;
 
@@ -32,6 +44,7 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
     private static final Identifier ID = Unicopia.id("zap_apple_stage");
     static final long DAY_LENGTH = World.field_30969;
     static final long MOON_PHASES = DimensionType.MOON_SIZES.length;
+    private static final int TRANSITION_BATCH_SIZE = 512;
 
     public static ZapAppleStageStore get(World world) {
         return WorldOverlay.getPersistableStorage(world, ID, ZapAppleStageStore::new, ZapAppleStageStore::new);
@@ -46,6 +59,16 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
     private int nextLightningEvent = 1200;
     private float prevSkyAngle;
 
+    /**
+     * Positions of the staged zap apple blocks in each loaded chunk.
+     * Rebuilt as chunks load, so it is not saved.
+     */
+    private final Long2ObjectMap<LongSet> trees = new Long2ObjectOpenHashMap<>();
+    /**
+     * Tracked positions that are behind the current stage, in the order they will next be given a chance to advance.
+     */
+    private final LongLinkedOpenHashSet pendingTransitions = new LongLinkedOpenHashSet();
+
     ZapAppleStageStore(World world, NbtCompound compound) {
         this(world);
         lastStage = Stage.VALUES[Math.max(0, compound.getInt("stage")) % Stage.VALUES.length];
@@ -78,6 +101,7 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
                     playedMoonEffect = false;
                     markDirty();
                     sendUpdate();
+                    trees.values().forEach(pendingTransitions::addAll);
                 }
             }
         } else if (stageChanged) {
@@ -86,6 +110,97 @@ public class ZapAppleStageStore extends PersistentState implements Tickable {
         }
 
         prevSkyAngle = skyAngle;
+
+        if (!world.isDay()) {
+            advanceTrees();
+        }
+    }
+
+    /**
+     * Gives the next batch of trees that are behind the current stage a chance to catch up.
+     * Each tree is visited once every few ticks, so its chance to advance is scaled by how long it has waited.
+     */
+    private void advanceTrees() {
+        if (pendingTransitions.isEmpty() || !(world instanceof ServerWorld sw)) {
+            return;
+        }
+
+        int batchSize = Math.min(TRANSITION_BATCH_SIZE, pendingTransitions.size());
+        int elapsed = MathHelper.ceilDiv(pendingTransitions.size(), TRANSITION_BATCH_SIZE);
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        for (int i = 0; i < batchSize; i++) {
+            long packed = pendingTransitions.removeFirstLong();
+            pos.set(packed);
+            if (!world.isChunkLoaded(ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()))) {
+                continue;
+            }
+
+            BlockState state = world.getBlockState(pos);
+            if (!(state.getBlock() instanceof ZapStagedBlock staged) || !staged.isStaged(state)) {
+                untrackTree(packed);
+                continue;
+            }
+
+            if (!staged.tryAdvanceStage(state, sw, pos.toImmutable(), world.random, elapsed)) {
+                pendingTransitions.add(packed);
+            }
+        }
+    }
+
+    /**
+     * Registers a staged zap apple block so it follows the orchard's stage changes.
+     */
+    public void trackTree(BlockPos pos, Stage stage) {
+        long packed = pos.asLong();
+        trees.computeIfAbsent(ChunkPos.toLong(pos), c -> new LongOpenHashSet()).add(packed);
+        if (stage != lastStage) {
+            pendingTransitions.add(packed);
+        }
+    }
+
+    private void untrackTree(long packed) {
+        long chunkPos = ChunkPos.toLong(ChunkSectionPos.getSectionCoord(BlockPos.unpackLongX(packed)), ChunkSectionPos.getSectionCoord(BlockPos.unpackLongZ(packed)));
+        LongSet positions = trees.get(chunkPos);
+        if (positions != null && positions.remove(packed) && positions.isEmpty()) {
+            trees.remove(chunkPos);
+        }
+    }
+
+    public void onChunkLoaded(WorldChunk chunk) {
+        ChunkSection[] sections = chunk.getSectionArray();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        int minX = chunk.getPos().getStartX();
+        int minZ = chunk.getPos().getStartZ();
+
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (!section.hasAny(ZapAppleStageStore::isStagedBlock)) {
+                continue;
+            }
+            int minY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = section.getBlockState(x, y, z);
+                        if (isStagedBlock(state)) {
+                            trackTree(pos.set(minX + x, minY + y, minZ + z), ((ZapStagedBlock)state.getBlock()).getStage(state));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void onChunkUnloaded(WorldChunk chunk) {
+        LongSet positions = trees.remove(chunk.getPos().toLong());
+        if (positions != null) {
+            pendingTransitions.removeAll(positions);
+        }
+    }
+
+    private static boolean isStagedBlock(BlockState state) {
+        return state.getBlock() instanceof ZapStagedBlock staged && staged.isStaged(state);
     }
 
     protected void sendUpdate() {
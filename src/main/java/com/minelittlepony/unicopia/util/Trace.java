@@ -26,9 +26,13 @@ public record Trace(
      * @return A Trace describing what was found.
      */
     public static Trace create(Entity e, double distance, float tickDelta, Predicate<Entity> predicate) {
+        return create(TraceHelper.scan(e, distance, tickDelta), predicate);
+    }
+
+    static Trace create(TraceHelper.Scan scan, Predicate<Entity> predicate) {
         return new Trace(
-                ((Optional<HitResult>)(Optional<?>)TraceHelper.traceEntity(e, distance, tickDelta, predicate))
-                .or(() -> Optional.ofNullable(e.raycast(distance, tickDelta, false)))
+                ((Optional<HitResult>)(Optional<?>)scan.findEntity(predicate))
+                .or(() -> Optional.ofNullable(scan.block()))
         );
     }
 
@@ -1,17 +1,30 @@
 package com.minelittlepony.unicopia.util;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.function.*;
 
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.projectile.ProjectileUtil;
 import net.minecraft.predicate.entity.EntityPredicates;
 import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.*;
 import net.minecraft.world.BlockView;
 
 public class TraceHelper {
+    private static final int CACHE_SIZE = 8;
+
+    /**
+     * The most recent scans made on each thread. Entries are only reused within the same tick
+     * and for the exact same eye position, look vector, and distance.
+     */
+    private static final ThreadLocal<ScanCache> CACHE = ThreadLocal.withInitial(ScanCache::new);
+
     /**
      * Performs a ray trace from the given entity and returns
      * a result for the first Entity that the ray intercepts.
@@ -48,7 +61,12 @@ public class TraceHelper {
      * @param tickDelta    Client partial ticks
      */
     public static Optional<BlockPos> findBlock(Entity e, double distance, float tickDelta) {
-        return Trace.create(e, distance, tickDelta, EntityPredicates.EXCEPT_CREATIVE_OR_SPECTATOR).getBlockPos();
+        Scan scan = scan(e, distance, tickDelta);
+        // entities only matter if there is a block for them to be in front of
+        if (scan.block().getType() != HitResult.Type.BLOCK) {
+            return Optional.empty();
+        }
+        return Trace.create(scan, EntityPredicates.EXCEPT_CREATIVE_OR_SPECTATOR).getBlockPos();
     }
 
     /**
@@ -62,12 +80,29 @@ public class TraceHelper {
      * @return List of matching positions
      */
     public static List<BlockPos> findBlocks(Entity e, double distance, float tickDelta, Predicate<BlockState> predicate) {
+        LongList positions = findBlockPositions(e, distance, tickDelta, predicate);
+        List<BlockPos> result = new ArrayList<>(positions.size());
+        positions.forEach(pos -> result.add(BlockPos.fromLong(pos)));
+        return result;
+    }
+
+    /**
+     * Performs a raytrace and returns all matching blocks the ray passed through, as packed block positions.
+     *
+     * @param e            Entity to start from
+     * @param distance     Maximum distance
+     * @param tickDelta    Client partial ticks
+     * @param predicate    Predicate test to filter block states
+     *
+     * @return List of matching positions in the order the ray passed through them
+     */
+    public static LongList findBlockPositions(Entity e, double distance, float tickDelta, Predicate<BlockState> predicate) {
         final Vec3d orientation = e.getRotationVec(tickDelta);
         final Vec3d start = e.getCameraPosVec(tickDelta);
 
-        return BlockView.raycast(start, start.add(orientation.multiply(distance)), new ArrayList<BlockPos>(), (ctx, pos) -> {
+        return BlockView.raycast(start, start.add(orientation.multiply(distance)), new LongArrayList(), (ctx, pos) -> {
             if (predicate.test(e.getWorld().getBlockState(pos))) {
-                ctx.add(pos);
+                ctx.add(pos.asLong());
             }
             return null;
         }, ctx -> {
@@ -75,14 +110,165 @@ public class TraceHelper {
         });
     }
 
-    static Optional<EntityHitResult> traceEntity(Entity e, double distance, float tickDelta, Predicate<Entity> predicate) {
+    /**
+     * Performs a ray trace from the given entity and finds the first block the ray hits.
+     * Entities the ray passes through are only collected the first time they're asked for.
+     * <p>
+     * Results are shared with any other scan made for the same entity, eye position, look vector, and distance in the same tick.
+     *
+     * @param e            Entity to start from
+     * @param distance     Maximum distance
+     * @param tickDelta    Client partial ticks
+     */
+    public static Scan scan(Entity e, double distance, float tickDelta) {
         final Vec3d orientation = e.getRotationVec(tickDelta);
         final Vec3d start = e.getCameraPosVec(tickDelta);
+        final long time = e.getWorld().getTime();
+
+        ScanCache cache = CACHE.get();
+        Scan scan = cache.get(e, time, start, orientation, distance);
+        if (scan == null) {
+            // the cached scan must not keep the tracer (or its world) alive, so the collector only holds it weakly too
+            WeakReference<Entity> tracer = new WeakReference<>(e);
+            scan = new Scan(e.raycast(distance, tickDelta, false), () -> {
+                Entity entity = tracer.get();
+                return entity == null ? List.of() : collectEntities(entity, start, orientation, distance);
+            });
+            cache.put(new CachedScan(tracer, time, start, orientation, distance, scan));
+        }
+        return scan;
+    }
+
+    /**
+     * Drops the scans made on the current thread. Called at the end of every tick so nothing they hit outlives it.
+     */
+    public static void clearCache() {
+        CACHE.get().clear();
+    }
+
+    static Optional<EntityHitResult> traceEntity(Entity e, double distance, float tickDelta, Predicate<Entity> predicate) {
+        return scan(e, distance, tickDelta).findEntity(predicate);
+    }
 
+    private static List<EntityHitResult> collectEntities(Entity e, Vec3d start, Vec3d orientation, double distance) {
+        final Vec3d end = start.add(orientation.multiply(distance));
         final Box box = e.getBoundingBox().stretch(orientation.multiply(Math.abs(distance))).expand(10);
+        final Entity vehicle = e.getRootVehicle();
+        final double maxSquaredDistance = Math.abs(distance);
+
+        List<Entity> entities = e.getWorld().getOtherEntities(e, box);
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (Entity entity : entities) {
+            Box bounds = entity.getBoundingBox().expand(entity.getTargetingMargin());
+            Vec3d hit;
+            if (bounds.contains(start)) {
+                hit = start;
+            } else {
+                Optional<Vec3d> intercept = bounds.raycast(start, end);
+                if (intercept.isEmpty()) {
+                    continue;
+                }
+                hit = intercept.get();
+                // the distance has always been compared against the squared distance to each entity,
+                // so entities are only reachable up to its square root
+                if (maxSquaredDistance != 0 && start.squaredDistanceTo(hit) >= maxSquaredDistance) {
+                    continue;
+                }
+            }
+
+            // entities riding with the tracer are only picked when nothing else is in the way
+            candidates.add(new Candidate(new EntityHitResult(entity, hit), entity.getRootVehicle() == vehicle ? Double.MAX_VALUE : start.squaredDistanceTo(hit)));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        return candidates.stream().map(Candidate::hit).toList();
+    }
+
+    private record Candidate(EntityHitResult hit, double distance) {}
+
+    /**
+     * The result of a single ray trace.
+     */
+    public static final class Scan {
+        private final HitResult block;
+        @Nullable
+        private Supplier<List<EntityHitResult>> entityCollector;
+        @Nullable
+        private List<EntityHitResult> entities;
+
+        Scan(HitResult block, Supplier<List<EntityHitResult>> entityCollector) {
+            this.block = block;
+            this.entityCollector = entityCollector;
+        }
+
+        /**
+         * The first block the ray hit, or a miss if it reached its full length
+         */
+        public HitResult block() {
+            return block;
+        }
+
+        /**
+         * Every entity the ray passed through that is still in the world, nearest first
+         */
+        public List<EntityHitResult> entities() {
+            if (entities == null) {
+                entities = entityCollector.get();
+                entityCollector = null;
+            }
+            return entities.stream().filter(hit -> !hit.getEntity().isRemoved()).toList();
+        }
+
+        public Optional<EntityHitResult> findEntity(Predicate<Entity> predicate) {
+            for (EntityHitResult hit : entities()) {
+                if (predicate.test(hit.getEntity())) {
+                    return Optional.of(hit);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private record CachedScan(WeakReference<Entity> entity, long time, Vec3d start, Vec3d orientation, double distance, Scan scan) {
+        boolean matches(Entity e, long time, Vec3d start, Vec3d orientation, double distance) {
+            return entity.get() == e
+                    && this.time == time
+                    && this.distance == distance
+                    && this.start.equals(start)
+                    && this.orientation.equals(orientation);
+        }
+    }
+
+    private static final class ScanCache {
+        private final CachedScan[] entries = new CachedScan[CACHE_SIZE];
+        private int next;
+
+        @Nullable
+        Scan get(Entity e, long time, Vec3d start, Vec3d orientation, double distance) {
+            for (int i = 0; i < entries.length; i++) {
+                CachedScan cached = entries[i];
+                if (cached != null) {
+                    if (cached.time() != time) {
+                        // scans never outlive their tick, so don't keep what they hit around any longer either
+                        entries[i] = null;
+                    } else if (cached.matches(e, time, start, orientation, distance)) {
+                        return cached.scan();
+                    }
+                }
+            }
+            return null;
+        }
+
+        void put(CachedScan scan) {
+            entries[next] = scan;
+            next = (next + 1) % entries.length;
+        }
 
-        return Optional.ofNullable(
-            ProjectileUtil.raycast(e, start, start.add(orientation.multiply(distance)), box, predicate, Math.abs(distance))
-        );
+        void clear() {
+            Arrays.fill(entries, null);
+        }
     }
 }
@@ -0,0 +1,104 @@
+package com.minelittlepony.unicopia.util.shape;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * The positions of every block inside a shape, relative to the shape's origin.
+ * <p>
+ * Offsets of the basic shapes are computed once per distinct shape and cached, so callers that rebuild
+ * the same shape every tick don't have to re-test every position in its bounding box.
+ * The cache is bounded by the total number of blocks it holds rather than by the number of shapes.
+ */
+public final class BlockOffsets {
+    private static final int MAX_CACHED_BLOCKS = 1 << 18;
+
+    private static final Map<Shape, BlockOffsets> CACHE = new LinkedHashMap<>(16, 0.75F, true);
+    private static int cachedBlocks;
+
+    private final int[] offsets;
+
+    /**
+     * Gets the block offsets for an untranslated shape.
+     * Only shapes that can be rasterized directly are cached. Anything else, such as translated shapes
+     * whose offset is part of their identity, would only push out the entries worth keeping.
+     */
+    public static BlockOffsets of(Shape shape) {
+        if (!(shape instanceof Rasterizable)) {
+            return new BlockOffsets(shape);
+        }
+        synchronized (CACHE) {
+            BlockOffsets offsets = CACHE.get(shape);
+            if (offsets == null) {
+                offsets = new BlockOffsets(shape);
+                if (offsets.size() <= MAX_CACHED_BLOCKS) {
+                    CACHE.put(shape, offsets);
+                    cachedBlocks += offsets.size();
+                    var iter = CACHE.values().iterator();
+                    while (cachedBlocks > MAX_CACHED_BLOCKS && iter.hasNext()) {
+                        cachedBlocks -= iter.next().size();
+                        iter.remove();
+                    }
+                }
+            }
+            return offsets;
+        }
+    }
+
+    private BlockOffsets(Shape shape) {
+        if (shape instanceof Rasterizable r) {
+            IntArrayList offsets = new IntArrayList();
+            r.rasterize(offsets);
+            this.offsets = offsets.toIntArray();
+        } else {
+            offsets = shape.getBlockPositions().flatMapToInt(pos -> IntStream.of(pos.getX(), pos.getY(), pos.getZ())).toArray();
+        }
+    }
+
+    /**
+     * The number of blocks inside the shape.
+     */
+    public int size() {
+        return offsets.length / 3;
+    }
+
+    /**
+     * Visits every block of the shape placed at the given origin.
+     * The same mutable position is passed to the consumer for each block.
+     */
+    public void forEach(BlockPos origin, Consumer consumer) {
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = 0; i < offsets.length; i += 3) {
+            consumer.accept(pos.set(origin.getX() + offsets[i], origin.getY() + offsets[i + 1], origin.getZ() + offsets[i + 2]));
+        }
+    }
+
+    /**
+     * Visits the packed position of every block of the shape placed at the given origin.
+     */
+    public void forEach(BlockPos origin, LongConsumer consumer) {
+        int x = origin.getX();
+        int y = origin.getY();
+        int z = origin.getZ();
+        for (int i = 0; i < offsets.length; i += 3) {
+            consumer.accept(BlockPos.asLong(x + offsets[i], y + offsets[i + 1], z + offsets[i + 2]));
+        }
+    }
+
+    /**
+     * Gets the positions of every block of the shape, relative to its origin.
+     */
+    public Stream<BlockPos> stream() {
+        return IntStream.range(0, size()).mapToObj(i -> new BlockPos(offsets[i * 3], offsets[i * 3 + 1], offsets[i * 3 + 2]));
+    }
+
+    public interface Consumer {
+        void accept(BlockPos.Mutable pos);
+    }
+}
@@ -1,10 +1,16 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 
-public class Cylinder implements Shape {
+public class Cylinder implements Shape, Rasterizable {
 
     private final boolean hollow;
 
@@ -48,6 +54,18 @@ public class Cylinder implements Shape {
         volume = computeSpawnableSpace();
     }
 
+    Cylinder(PacketByteBuf buffer) {
+        this(buffer.readBoolean(), buffer.readDouble(), buffer.readDouble(), buffer.readDouble(), buffer.readDouble());
+    }
+
+    void toBuffer(PacketByteBuf buffer) {
+        buffer.writeBoolean(hollow);
+        buffer.writeDouble(height);
+        buffer.writeDouble(rad);
+        buffer.writeDouble(stretchX);
+        buffer.writeDouble(stretchZ);
+    }
+
     @Override
     public double getVolume() {
         return volume;
@@ -77,15 +95,90 @@ public class Cylinder implements Shape {
 
     @Override
     public boolean isPointInside(Vec3d point) {
-        point = new Vec3d(point.x / stretchX, point.y, point.z / stretchZ);
         double y = Math.abs(point.y);
         if (y < height/2) {
-            double r = Math.sqrt((point.x * point.x) + (point.z * point.z));
-            return hollow ? r == rad : r <= rad;
+            return isInside(getSquaredRadius(point.x, point.z));
         }
         return y == height/2;
     }
 
+    private double getSquaredRadius(double x, double z) {
+        x /= stretchX;
+        z /= stretchZ;
+        return x * x + z * z;
+    }
+
+    private boolean isInside(double squaredRadius) {
+        return hollow ? Math.sqrt(squaredRadius) == rad : squaredRadius <= rad * rad;
+    }
+
+    @Override
+    public Stream<BlockPos> getBlockPositions() {
+        return BlockOffsets.of(this).stream();
+    }
+
+    @Override
+    public void rasterize(IntArrayList offsets) {
+        double radSq = rad * rad;
+        int minX = MathHelper.floor(-rad * stretchX);
+        int maxX = MathHelper.floor(rad * stretchX);
+        int minZ = MathHelper.floor(-rad * stretchZ);
+        int maxZ = MathHelper.floor(rad * stretchZ);
+        int maxY = MathHelper.floor(height);
+
+        for (int y = 0; y <= maxY; y++) {
+            double cy = y + 0.5;
+            if (cy > height/2) {
+                break;
+            }
+            for (int x = minX; x <= maxX; x++) {
+                if (cy == height/2) {
+                    // the cap includes every block of its layer
+                    for (int z = minZ; z <= maxZ; z++) {
+                        add(offsets, x, y, z);
+                    }
+                    continue;
+                }
+
+                double cx = x + 0.5;
+                double remainder = radSq - getSquaredRadius(cx, 0);
+                if (!(remainder >= 0)) {
+                    continue;
+                }
+
+                double half = stretchZ * Math.sqrt(remainder);
+                int rowMin = Math.max(minZ, MathHelper.ceil(-half - 0.5));
+                int rowMax = Math.min(maxZ, MathHelper.floor(half - 0.5));
+                while (rowMin > minZ && getSquaredRadius(cx, rowMin - 0.5) <= radSq) rowMin--;
+                while (rowMin <= rowMax && getSquaredRadius(cx, rowMin + 0.5) > radSq) rowMin++;
+                while (rowMax < maxZ && getSquaredRadius(cx, rowMax + 1.5) <= radSq) rowMax++;
+                while (rowMax >= rowMin && getSquaredRadius(cx, rowMax + 0.5) > radSq) rowMax--;
+
+                if (hollow) {
+                    // only the ends of a run can lie exactly on the curved surface, or the blocks just past them
+                    // when rounding puts a surface point a fraction outside the run
+                    for (int z = Math.max(minZ, rowMin - 1); z <= Math.min(maxZ, rowMax + 1); z++) {
+                        if (z > rowMin && z < rowMax) {
+                            z = rowMax - 1;
+                        } else if (isInside(getSquaredRadius(cx, z + 0.5))) {
+                            add(offsets, x, y, z);
+                        }
+                    }
+                } else {
+                    for (int z = rowMin; z <= rowMax; z++) {
+                        add(offsets, x, y, z);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void add(IntArrayList offsets, int x, int y, int z) {
+        offsets.add(x);
+        offsets.add(y);
+        offsets.add(z);
+    }
+
     @Override
     public Vec3d getLowerBound() {
         return new Vec3d(-rad * stretchX, 0, -rad * stretchZ);
@@ -93,6 +186,21 @@ public class Cylinder implements Shape {
 
     @Override
     public Vec3d getUpperBound() {
-        return new Vec3d(-rad * stretchX, height, -rad * stretchZ);
+        return new Vec3d(rad * stretchX, height, rad * stretchZ);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Cylinder o
+                && hollow == o.hollow
+                && Double.compare(stretchX, o.stretchX) == 0
+                && Double.compare(stretchZ, o.stretchZ) == 0
+                && Double.compare(height, o.height) == 0
+                && Double.compare(rad, o.rad) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hollow, stretchX, stretchZ, height, rad);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,22 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.Objects;
+import java.util.stream.Stream;
+
 import com.minelittlepony.unicopia.util.VecHelper;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
+import net.minecraft.world.BlockView;
 
 /**
  * A lonely Line. The simplest form of shape.
  */
-public class Line implements Shape {
+public class Line implements Shape, Rasterizable {
 
     private final double length;
 
@@ -26,6 +33,17 @@ public class Line implements Shape {
         this.gradient = gradient.normalize();
     }
 
+    Line(PacketByteBuf buffer) {
+        this(buffer.readDouble(), new Vec3d(buffer.readDouble(), buffer.readDouble(), buffer.readDouble()));
+    }
+
+    void toBuffer(PacketByteBuf buffer) {
+        buffer.writeDouble(length);
+        buffer.writeDouble(gradient.x);
+        buffer.writeDouble(gradient.y);
+        buffer.writeDouble(gradient.z);
+    }
+
     @Override
     public double getVolume() {
         return length;
@@ -42,6 +60,24 @@ public class Line implements Shape {
         return divided.x == divided.y && divided.x == divided.z;
     }
 
+    @Override
+    public Stream<BlockPos> getBlockPositions() {
+        return BlockOffsets.of(this).stream();
+    }
+
+    /**
+     * Rasterises this line as every block the segment passes through, in order from its start.
+     */
+    @Override
+    public void rasterize(IntArrayList offsets) {
+        BlockView.raycast(Vec3d.ZERO, getUpperBound(), offsets, (o, pos) -> {
+            o.add(pos.getX());
+            o.add(pos.getY());
+            o.add(pos.getZ());
+            return null;
+        }, o -> null);
+    }
+
     @Override
     public Vec3d getLowerBound() {
         return Vec3d.ZERO;
@@ -51,4 +87,16 @@ public class Line implements Shape {
     public Vec3d getUpperBound() {
         return gradient.multiply(length);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Line o
+                && Double.compare(length, o.length) == 0
+                && Objects.equals(gradient, o.gradient);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(length, gradient);
+    }
 }
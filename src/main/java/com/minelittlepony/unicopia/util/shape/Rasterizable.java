@@ -0,0 +1,14 @@
+package com.minelittlepony.unicopia.util.shape;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * A shape that can enumerate the blocks it contains directly on the block lattice,
+ * rather than by testing the center of every block inside its bounding box.
+ */
+interface Rasterizable {
+    /**
+     * Appends the x, y, and z offset of every block whose center lies inside this shape.
+     */
+    void rasterize(IntArrayList offsets);
+}
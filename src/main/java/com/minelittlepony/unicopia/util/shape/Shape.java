@@ -1,5 +1,6 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
 import net.minecraft.util.math.*;
@@ -42,6 +43,14 @@ public interface Shape extends PointGenerator {
         ).filter(pos -> isPointInside(Vec3d.ofCenter(pos)));
     }
 
+    /**
+     * Visits the packed position of every block inside this shape when placed at the given origin.
+     * Block offsets are computed once per distinct shape, so no positions are allocated.
+     */
+    default void forEachBlock(BlockPos origin, LongConsumer consumer) {
+        BlockOffsets.of(this).forEach(origin, consumer);
+    }
+
     /**
      * Returns a sequence of random points dealed out to uniformly fill this shape's area.
      */
@@ -0,0 +1,71 @@
+package com.minelittlepony.unicopia.util.shape;
+
+import com.minelittlepony.unicopia.util.serialization.PacketCodec;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Serializes spheres, cylinders, and lines, along with any rotations and translations applied to them,
+ * so the receiving side can generate the same kinds of points without them being sent individually.
+ */
+public interface ShapeCodec {
+    byte SPHERE = 0;
+    byte CYLINDER = 1;
+    byte LINE = 2;
+    byte ROTATED = 3;
+    byte TRANSLATED = 4;
+
+    PacketCodec<PointGenerator> CODEC = new PacketCodec<>(ShapeCodec::read, ShapeCodec::write);
+
+    /**
+     * Checks whether the given shape is made up only of parts that can be sent over the network.
+     */
+    static boolean canWrite(PointGenerator shape) {
+        if (shape instanceof RotatedPointGenerator rotated) {
+            return canWrite(rotated.original());
+        }
+        if (shape instanceof TranslatedPointGenerator translated) {
+            return canWrite(translated.source());
+        }
+        return shape.getClass() == Sphere.class || shape.getClass() == Cylinder.class || shape.getClass() == Line.class;
+    }
+
+    private static PointGenerator read(PacketByteBuf buffer) {
+        byte type = buffer.readByte();
+        return switch (type) {
+            case SPHERE -> new Sphere(buffer);
+            case CYLINDER -> new Cylinder(buffer);
+            case LINE -> new Line(buffer);
+            case ROTATED -> new RotatedPointGenerator(read(buffer), buffer.readFloat(), buffer.readFloat());
+            case TRANSLATED -> new TranslatedPointGenerator(read(buffer), new Vec3d(buffer.readDouble(), buffer.readDouble(), buffer.readDouble()));
+            default -> throw new IllegalArgumentException("Unknown shape type " + type);
+        };
+    }
+
+    private static void write(PacketByteBuf buffer, PointGenerator shape) {
+        if (shape instanceof RotatedPointGenerator rotated) {
+            buffer.writeByte(ROTATED);
+            write(buffer, rotated.original());
+            buffer.writeFloat(rotated.pitch());
+            buffer.writeFloat(rotated.yaw());
+        } else if (shape instanceof TranslatedPointGenerator translated) {
+            buffer.writeByte(TRANSLATED);
+            write(buffer, translated.source());
+            buffer.writeDouble(translated.offset().x);
+            buffer.writeDouble(translated.offset().y);
+            buffer.writeDouble(translated.offset().z);
+        } else if (shape instanceof Sphere sphere) {
+            buffer.writeByte(SPHERE);
+            sphere.toBuffer(buffer);
+        } else if (shape instanceof Cylinder cylinder) {
+            buffer.writeByte(CYLINDER);
+            cylinder.toBuffer(buffer);
+        } else if (shape instanceof Line line) {
+            buffer.writeByte(LINE);
+            line.toBuffer(buffer);
+        } else {
+            throw new IllegalArgumentException("Shape cannot be serialized: " + shape);
+        }
+    }
+}
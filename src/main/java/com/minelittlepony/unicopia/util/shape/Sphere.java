@@ -1,7 +1,12 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.stream.Stream;
+
 import org.spongepowered.include.com.google.common.base.Objects;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
@@ -10,7 +15,7 @@ import net.minecraft.util.math.random.Random;
  * A sphere, or 2d circle of you so desire.
  *
  */
-public class Sphere implements Shape {
+public class Sphere implements Shape, Rasterizable {
     public static final Sphere UNIT_SPHERE = new Sphere(false, 1);
 
     protected final Vec3d stretch;
@@ -49,6 +54,18 @@ public class Sphere implements Shape {
         volume = computeSpawnableSpace();
     }
 
+    Sphere(PacketByteBuf buffer) {
+        this(buffer.readBoolean(), buffer.readDouble(), buffer.readFloat(), buffer.readFloat(), buffer.readFloat());
+    }
+
+    void toBuffer(PacketByteBuf buffer) {
+        buffer.writeBoolean(hollow);
+        buffer.writeDouble(rad);
+        buffer.writeFloat((float)stretch.x);
+        buffer.writeFloat((float)stretch.y);
+        buffer.writeFloat((float)stretch.z);
+    }
+
     @Override
     public double getVolume() {
         return volume;
@@ -87,11 +104,71 @@ public class Sphere implements Shape {
 
     @Override
     public boolean isPointInside(Vec3d point) {
-        point = new Vec3d(point.x / stretch.x, point.y / stretch.y, point.z / stretch.z);
+        return isInside(getSquaredDistance(point.x, point.y, point.z));
+    }
+
+    private double getSquaredDistance(double x, double y, double z) {
+        x /= stretch.x;
+        y /= stretch.y;
+        z /= stretch.z;
+        return x * x + y * y + z * z;
+    }
 
-        double dist = point.length();
+    private boolean isInside(double squaredDist) {
+        return hollow ? Math.sqrt(squaredDist) == rad : squaredDist <= rad * rad;
+    }
 
-        return hollow ? dist == rad : dist <= rad;
+    @Override
+    public Stream<BlockPos> getBlockPositions() {
+        return BlockOffsets.of(this).stream();
+    }
+
+    @Override
+    public void rasterize(IntArrayList offsets) {
+        double radSq = rad * rad;
+        int maxX = MathHelper.floor(rad * stretch.x);
+        int maxY = MathHelper.floor(rad * stretch.y);
+
+        for (int x = MathHelper.floor(-rad * stretch.x); x <= maxX; x++) {
+            double cx = x + 0.5;
+            for (int y = MathHelper.floor(-rad * stretch.y); y <= maxY; y++) {
+                double cy = y + 0.5;
+                double remainder = radSq - getSquaredDistance(cx, cy, 0);
+                if (!(remainder >= 0)) {
+                    continue;
+                }
+
+                // the blocks of this row inside the sphere form a single run, so find its ends analytically
+                // and then nudge them to agree exactly with the point test
+                double half = stretch.z * Math.sqrt(remainder);
+                int minZ = MathHelper.ceil(-half - 0.5);
+                int maxZ = MathHelper.floor(half - 0.5);
+                while (getSquaredDistance(cx, cy, minZ - 0.5) <= radSq) minZ--;
+                while (minZ <= maxZ && getSquaredDistance(cx, cy, minZ + 0.5) > radSq) minZ++;
+                while (getSquaredDistance(cx, cy, maxZ + 1.5) <= radSq) maxZ++;
+                while (maxZ >= minZ && getSquaredDistance(cx, cy, maxZ + 0.5) > radSq) maxZ--;
+
+                if (hollow) {
+                    // only the ends of a run can lie exactly on the surface, or the blocks just past them
+                    // when rounding puts a surface point a fraction outside the run
+                    for (int z = minZ - 1; z <= maxZ + 1; z++) {
+                        if (z > minZ && z < maxZ) {
+                            z = maxZ - 1;
+                        } else if (isInside(getSquaredDistance(cx, cy, z + 0.5))) {
+                            offsets.add(x);
+                            offsets.add(y);
+                            offsets.add(z);
+                        }
+                    }
+                } else {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        offsets.add(x);
+                        offsets.add(y);
+                        offsets.add(z);
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -1,5 +1,9 @@
 package com.minelittlepony.unicopia.util.shape;
 
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.random.Random;
 
@@ -33,6 +37,27 @@ record TranslatedPointGenerator (
         return ((Shape)source).isPointInside(point.subtract(offset));
     }
 
+    @Override
+    public Stream<BlockPos> getBlockPositions() {
+        if (isBlockAligned()) {
+            return ((Shape)source).getBlockPositions().map(pos -> pos.add((int)offset.x, (int)offset.y, (int)offset.z));
+        }
+        return Shape.super.getBlockPositions();
+    }
+
+    @Override
+    public void forEachBlock(BlockPos origin, LongConsumer consumer) {
+        if (isBlockAligned()) {
+            ((Shape)source).forEachBlock(origin.add((int)offset.x, (int)offset.y, (int)offset.z), consumer);
+        } else {
+            Shape.super.forEachBlock(origin, consumer);
+        }
+    }
+
+    private boolean isBlockAligned() {
+        return offset.x == Math.floor(offset.x) && offset.y == Math.floor(offset.y) && offset.z == Math.floor(offset.z);
+    }
+
     @Override
     public Shape translate(Vec3d offset) {
         if (offset.equals(Vec3d.ZERO)) {